@@ -0,0 +1,17 @@
+package com.spring_base.fundamentals.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.slf4j.LoggerFactory;
+
+final class Benchmarks {
+
+    private Benchmarks() {
+    }
+
+    // without Spring there is no logback-spring.xml, and logback's default would print every DEBUG line to the console
+    static void quietLogging() {
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+    }
+
+}
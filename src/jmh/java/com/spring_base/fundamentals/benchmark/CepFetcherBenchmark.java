@@ -0,0 +1,132 @@
+package com.spring_base.fundamentals.benchmark;
+
+import com.spring_base.fundamentals.config.ApiProperties;
+import com.spring_base.fundamentals.config.CepCacheProperties;
+import com.spring_base.fundamentals.config.CepExecutorConfig;
+import com.spring_base.fundamentals.config.CepExecutorProperties;
+import com.spring_base.fundamentals.config.CepHedgingProperties;
+import com.spring_base.fundamentals.config.CepLimiterProperties;
+import com.spring_base.fundamentals.config.CepResilienceConfig;
+import com.spring_base.fundamentals.config.CepResilienceProperties;
+import com.spring_base.fundamentals.config.WebClientConfig;
+import com.spring_base.fundamentals.dto.CepResponse;
+import com.spring_base.fundamentals.service.cep.CepApiClient;
+import com.spring_base.fundamentals.service.cep.CepLookupCache;
+import com.spring_base.fundamentals.service.cep.CompletableFutureFetcher;
+import com.spring_base.fundamentals.service.cep.RequestHedger;
+import com.spring_base.fundamentals.service.cep.VirtualThreadsFetcher;
+import com.spring_base.fundamentals.support.StubUpstream;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// v1 (CompletableFuture on a platform pool) vs v2 (virtual threads) against the stub upstream.
+// Every call uses a new CEP, so the lookup cache never answers and each call pays for both upstream requests
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(64)
+public class CepFetcherBenchmark {
+
+    @Param({"none", "lognormal:20:200"})
+    public String latency;
+
+    private final AtomicLong nextCep = new AtomicLong(10_000_000);
+
+    private StubUpstream upstream;
+    private ConnectionProvider connections;
+    private ExecutorService v1Executor;
+    private ExecutorService v2Executor;
+    private CompletableFutureFetcher v1;
+    private VirtualThreadsFetcher v2;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Benchmarks.quietLogging();
+        upstream = new StubUpstream(StubUpstream.Latency.parse(latency));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        ApiProperties.Pool pool = new ApiProperties.Pool(500, 5000, Duration.ofSeconds(5),
+                Duration.ofSeconds(30), Duration.ofMinutes(5), Duration.ofSeconds(30));
+        ApiProperties api = new ApiProperties(
+                new ApiProperties.ViaCep(upstream.viaCepUrl(), pool),
+                new ApiProperties.Second(upstream.nationalizeUrl(), pool),
+                new ApiProperties.Http(Duration.ofSeconds(2), Duration.ofSeconds(5), false),
+                ApiProperties.PayloadMode.TYPED);
+        WebClientConfig webClientConfig = new WebClientConfig();
+        connections = webClientConfig.upstreamConnectionProvider(api);
+
+        CepCacheProperties.Upstream noCache = new CepCacheProperties.Upstream(1, Duration.ofMinutes(1), Duration.ofMinutes(1), Duration.ZERO);
+        CepResilienceProperties.Upstream resilience = new CepResilienceProperties.Upstream(
+                new CepResilienceProperties.Breaker(50, 80, Duration.ofSeconds(2), 50, 20, Duration.ofSeconds(30), 5),
+                new CepResilienceProperties.RetryPolicy(3, Duration.ofMillis(100), 2.0, 0.5));
+        CepResilienceProperties resilienceProperties = new CepResilienceProperties(resilience, resilience);
+        CepResilienceConfig resilienceConfig = new CepResilienceConfig();
+        CircuitBreakerRegistry circuitBreakers = resilienceConfig.cepCircuitBreakerRegistry(meterRegistry);
+        RetryRegistry retries = resilienceConfig.cepRetryRegistry(meterRegistry);
+
+        CepLimiterProperties limiter = new CepLimiterProperties(
+                new CepLimiterProperties.Upstream(100, Duration.ofMillis(500)),
+                new CepLimiterProperties.Upstream(100, Duration.ofMillis(500)));
+
+        CepApiClient client = new CepApiClient(
+                webClientConfig.webClient(connections, api),
+                api,
+                new CepLookupCache(new CepCacheProperties(noCache, noCache), meterRegistry),
+                new RequestHedger(new CepHedgingProperties(false, 0.95, Duration.ofMillis(50), 0.05, 10), meterRegistry),
+                resilienceConfig.viaCepResilience(resilienceProperties, circuitBreakers, retries, meterRegistry),
+                resilienceConfig.nationalizeResilience(resilienceProperties, circuitBreakers, retries, meterRegistry),
+                resilienceConfig.viaCepLimiter(limiter, meterRegistry),
+                resilienceConfig.nationalizeLimiter(limiter, meterRegistry));
+
+        CepExecutorConfig executorConfig = new CepExecutorConfig();
+        v1Executor = executorConfig.cepV1Executor(new CepExecutorProperties(200, 500, Duration.ofSeconds(60),
+                CepExecutorProperties.RejectionPolicy.CALLER_RUNS), meterRegistry);
+        v2Executor = executorConfig.cepV2Executor();
+
+        v1 = new CompletableFutureFetcher(meterRegistry, client, v1Executor);
+        v2 = new VirtualThreadsFetcher(meterRegistry, client, v2Executor);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        v1Executor.shutdownNow();
+        v2Executor.shutdownNow();
+        connections.dispose();
+        upstream.close();
+    }
+
+    @Benchmark
+    public CepResponse v1CompletableFuture() {
+        return v1.fetch(Long.toString(nextCep.getAndIncrement()));
+    }
+
+    @Benchmark
+    public CepResponse v2VirtualThreads() {
+        return v2.fetch(Long.toString(nextCep.getAndIncrement()));
+    }
+
+}
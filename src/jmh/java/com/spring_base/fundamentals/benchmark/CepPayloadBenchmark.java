@@ -0,0 +1,87 @@
+package com.spring_base.fundamentals.benchmark;
+
+import com.spring_base.fundamentals.config.ApiProperties;
+import com.spring_base.fundamentals.dto.CepPayload;
+import com.spring_base.fundamentals.dto.CepResponse;
+import com.spring_base.fundamentals.dto.NationalizeResult;
+import com.spring_base.fundamentals.dto.RawJson;
+import com.spring_base.fundamentals.dto.ViaCepAddress;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// What CepApiClient does with an upstream body in each app.api.payload mode (decode), and what the
+// controller then writes out (encode). Upstream bodies arrive as bytes, as they do from the Netty buffers
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CepPayloadBenchmark {
+
+    private static final byte[] VIACEP = """
+            {"cep":"83402-220","logradouro":"Rua Exemplo","complemento":"","unidade":"","bairro":"Centro",\
+            "localidade":"Colombo","uf":"PR","estado":"Paraná","regiao":"Sul","ibge":"4105805","gia":"",\
+            "ddd":"41","siafi":"7513"}""".getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] NATIONALIZE = """
+            {"count":12345,"name":"lucas","country":[{"country_id":"BR","probability":0.42},\
+            {"country_id":"PT","probability":0.11}]}""".getBytes(StandardCharsets.UTF_8);
+
+    @Param({"TYPED", "RAW"})
+    public ApiProperties.PayloadMode mode;
+
+    private ObjectReader viaCepReader;
+    private ObjectReader nationalizeReader;
+    private ObjectWriter responseWriter;
+    private CepResponse response;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = JsonMapper.builder().build();
+        viaCepReader = objectMapper.readerFor(ViaCepAddress.class);
+        nationalizeReader = objectMapper.readerFor(NationalizeResult.class);
+        responseWriter = objectMapper.writerFor(CepResponse.class);
+        response = new CepResponse(decodeViaCep(), decodeNationalize(), 42, "Virtual Threads");
+    }
+
+    @Benchmark
+    public CepPayload decodeViaCep() {
+        if (mode == ApiProperties.PayloadMode.RAW) {
+            String body = new String(VIACEP, StandardCharsets.UTF_8);
+            return new RawJson(body, body.contains("\"erro\""));
+        }
+        return viaCepReader.readValue(VIACEP);
+    }
+
+    @Benchmark
+    public CepPayload decodeNationalize() {
+        if (mode == ApiProperties.PayloadMode.RAW) {
+            String body = new String(NATIONALIZE, StandardCharsets.UTF_8);
+            return new RawJson(body, body.contains("\"count\":0"));
+        }
+        return nationalizeReader.readValue(NATIONALIZE);
+    }
+
+    @Benchmark
+    public byte[] encodeResponse() {
+        return responseWriter.writeValueAsBytes(response);
+    }
+
+}
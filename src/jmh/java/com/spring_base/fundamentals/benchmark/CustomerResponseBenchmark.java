@@ -0,0 +1,81 @@
+package com.spring_base.fundamentals.benchmark;
+
+import com.spring_base.fundamentals.config.CustomerCacheProperties;
+import com.spring_base.fundamentals.config.CustomerQueryProperties;
+import com.spring_base.fundamentals.config.IdempotencyProperties;
+import com.spring_base.fundamentals.dto.CustomerResponse;
+import com.spring_base.fundamentals.dto.CustomerView;
+import com.spring_base.fundamentals.model.Customer;
+import com.spring_base.fundamentals.repository.CustomerRepository;
+import com.spring_base.fundamentals.service.customer.CustomerCache;
+import com.spring_base.fundamentals.service.customer.CustomerService;
+import com.spring_base.fundamentals.service.customer.InMemoryIdempotencyStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// GET /customer/{id} on a cache hit: service call plus the JSON the controller writes. mapOfEntity is the
+// response shape before CustomerResponse (entity inside Map.of, serialized as Object) kept as a baseline;
+// run with -prof gc to compare bytes allocated per request
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomerResponseBenchmark {
+
+    private CustomerService customerService;
+    private ObjectMapper objectMapper;
+    private ObjectWriter responseWriter;
+    private Customer entity;
+
+    @Setup
+    public void setUp() {
+        Benchmarks.quietLogging();
+        CustomerRepository repository = Mockito.mock(CustomerRepository.class);
+        Mockito.when(repository.findViewById(1L))
+                .thenReturn(Optional.of(new CustomerView(1L, "Lucas", "lucas@email.com", 3L)));
+        customerService = new CustomerService(
+                repository,
+                new CustomerQueryProperties(500, 500),
+                new InMemoryIdempotencyStore(new IdempotencyProperties(
+                        IdempotencyProperties.Store.MEMORY, Duration.ofHours(1), Duration.ofSeconds(30), 100, Duration.ofMinutes(5))),
+                new CustomerCache(new CustomerCacheProperties(100, Duration.ofHours(1)), new SimpleMeterRegistry()));
+        customerService.getCustomer(1L);
+
+        objectMapper = JsonMapper.builder().build();
+        responseWriter = objectMapper.writerFor(CustomerResponse.class);
+        entity = new Customer(1L, "Lucas", "lucas@email.com", 3L);
+    }
+
+    @Benchmark
+    public byte[] typedResponse() {
+        return responseWriter.writeValueAsBytes(customerService.getCustomer(1L));
+    }
+
+    @Benchmark
+    public byte[] mapOfEntity() {
+        // the cache used to hand out a fresh entity copy on every hit
+        Customer copy = new Customer(entity.getId(), entity.getName(), entity.getEmail(), entity.getVersion());
+        return objectMapper.writeValueAsBytes(Map.of("customer", copy, "elapsedMs", 0L, "method", "getCustomer"));
+    }
+
+}
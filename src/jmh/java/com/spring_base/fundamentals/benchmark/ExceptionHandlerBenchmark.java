@@ -0,0 +1,55 @@
+package com.spring_base.fundamentals.benchmark;
+
+import com.spring_base.fundamentals.exception.CustomerNotFoundException;
+import com.spring_base.fundamentals.exception.GlobalExceptionHandler;
+import com.spring_base.fundamentals.exception.UpstreamUnavailableException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Error responses as the client sees them: exception (including its stack trace), handler map, JSON body
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExceptionHandlerBenchmark {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JsonMapper.builder().build();
+    }
+
+    @Benchmark
+    public byte[] customerNotFound() {
+        return objectMapper.writeValueAsBytes(handler.handleCustomerNotFound(new CustomerNotFoundException(42L)));
+    }
+
+    @Benchmark
+    public byte[] upstreamUnavailable() {
+        return objectMapper.writeValueAsBytes(handler.handleUpstreamUnavailable(
+                new UpstreamUnavailableException("viacep", new IOException("Connection reset"))));
+    }
+
+    @Benchmark
+    public byte[] unexpectedError() {
+        return objectMapper.writeValueAsBytes(handler.handleRuntimeException(new IllegalStateException("boom")));
+    }
+
+}
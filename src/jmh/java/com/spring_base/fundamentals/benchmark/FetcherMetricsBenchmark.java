@@ -0,0 +1,72 @@
+package com.spring_base.fundamentals.benchmark;
+
+import com.spring_base.fundamentals.dto.CepPayload;
+import com.spring_base.fundamentals.dto.RawJson;
+import com.spring_base.fundamentals.service.cep.FetcherMetrics;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Metrics overhead of one CEP lookup (request count, two upstream calls, lookup time) against a Prometheus registry:
+// meters looked up by name and tags on every request, as the fetchers used to do, vs FetcherMetrics' pre-registered ones
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class FetcherMetricsBenchmark {
+
+    private static final CepPayload PAYLOAD = new RawJson("{}", false);
+
+    private MeterRegistry lookupRegistry;
+    private Meter.MeterProvider<Timer> fetches;
+    private Meter.MeterProvider<Timer> upstreamCalls;
+
+    private FetcherMetrics metrics;
+
+    @Setup
+    public void setUp() {
+        lookupRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        fetches = Timer.builder("cep.fetch").tag("version", "v1").publishPercentileHistogram().withRegistry(lookupRegistry);
+        upstreamCalls = Timer.builder("cep.upstream.call").tag("version", "v1").publishPercentileHistogram().withRegistry(lookupRegistry);
+
+        metrics = new FetcherMetrics("v1", new PrometheusMeterRegistry(PrometheusConfig.DEFAULT));
+    }
+
+    @Benchmark
+    public long lookupPerRequest() {
+        lookupRegistry.counter("cep_requests_total", "version", "v1").increment();
+        long start = System.nanoTime();
+        upstreamCalls.withTags("upstream", "viacep", "outcome", "success").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        upstreamCalls.withTags("upstream", "nationalize", "outcome", "success").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        long elapsed = System.nanoTime() - start;
+        fetches.withTag("outcome", "success").record(elapsed, TimeUnit.NANOSECONDS);
+        return elapsed;
+    }
+
+    @Benchmark
+    public long preRegistered() {
+        long start = metrics.start();
+        metrics.upstream("viacep", () -> PAYLOAD);
+        metrics.upstream("nationalize", () -> PAYLOAD);
+        return metrics.recordSuccess(start);
+    }
+
+}
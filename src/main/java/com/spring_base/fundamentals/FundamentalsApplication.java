@@ -1,12 +1,42 @@
 package com.spring_base.fundamentals;
 
 import com.spring_base.fundamentals.config.ApiProperties;
+import com.spring_base.fundamentals.config.CepBatchProperties;
+import com.spring_base.fundamentals.config.CepCacheProperties;
+import com.spring_base.fundamentals.config.CepExecutorProperties;
+import com.spring_base.fundamentals.config.CepHedgingProperties;
+import com.spring_base.fundamentals.config.CepLimiterProperties;
+import com.spring_base.fundamentals.config.CepResilienceProperties;
+import com.spring_base.fundamentals.config.CustomerBulkProperties;
+import com.spring_base.fundamentals.config.CustomerCacheProperties;
+import com.spring_base.fundamentals.config.CustomerOutboxProperties;
+import com.spring_base.fundamentals.config.CustomerQueryProperties;
+import com.spring_base.fundamentals.config.DataSourceGateProperties;
+import com.spring_base.fundamentals.config.IdempotencyProperties;
+import com.spring_base.fundamentals.config.ReplicaDataSourceProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
-@EnableConfigurationProperties(ApiProperties.class)
+@EnableScheduling
+@EnableConfigurationProperties({
+		ApiProperties.class,
+		CepCacheProperties.class,
+		CepExecutorProperties.class,
+		CepLimiterProperties.class,
+		CepBatchProperties.class,
+		CepHedgingProperties.class,
+		CepResilienceProperties.class,
+		CustomerQueryProperties.class,
+		CustomerBulkProperties.class,
+		CustomerCacheProperties.class,
+		CustomerOutboxProperties.class,
+		IdempotencyProperties.class,
+		ReplicaDataSourceProperties.class,
+		DataSourceGateProperties.class
+})
 public class FundamentalsApplication {
 
 	public static void main(String[] args) {
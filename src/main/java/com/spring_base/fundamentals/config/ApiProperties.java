@@ -1,16 +1,41 @@
 package com.spring_base.fundamentals.config;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
+import java.time.Duration;
+
 @Validated
 @ConfigurationProperties(prefix = "app.api")
 public record ApiProperties(
-    @NotNull ViaCep viacep,
-    @NotNull Second second
+    @NotNull @Valid ViaCep viacep,
+    @NotNull @Valid Second second,
+    @NotNull @Valid Http http,
+    @NotNull PayloadMode payload
 ) {
-    public record ViaCep(@NotBlank String url) {}
-    public record Second(@NotBlank String url) {}
+    // TYPED decodes upstream bodies into records; RAW embeds them in the response without parsing
+    public enum PayloadMode { TYPED, RAW }
+
+    public record ViaCep(@NotBlank String url, @NotNull @Valid Pool pool) {}
+    public record Second(@NotBlank String url, @NotNull @Valid Pool pool) {}
+
+    public record Http(
+        @NotNull Duration connectTimeout,
+        @NotNull Duration responseTimeout,
+        boolean http2
+    ) {}
+
+    public record Pool(
+        @Positive int maxConnections,
+        @PositiveOrZero int pendingAcquireMaxCount,
+        @NotNull Duration pendingAcquireTimeout,
+        @NotNull Duration maxIdleTime,
+        @NotNull Duration maxLifeTime,
+        @NotNull Duration evictionInterval
+    ) {}
 }
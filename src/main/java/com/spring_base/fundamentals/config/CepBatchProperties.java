@@ -0,0 +1,12 @@
+package com.spring_base.fundamentals.config;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "app.cep.batch")
+public record CepBatchProperties(
+    @Positive int maxSize,
+    @Positive int maxInFlight
+) {}
@@ -0,0 +1,23 @@
+package com.spring_base.fundamentals.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "app.cep.cache")
+public record CepCacheProperties(
+    @NotNull @Valid Upstream viacep,
+    @NotNull @Valid Upstream nationalize
+) {
+    public record Upstream(
+        @Positive long maximumSize,
+        @NotNull Duration ttl,
+        @NotNull Duration negativeTtl,
+        @NotNull Duration staleTtl
+    ) {}
+}
@@ -0,0 +1,75 @@
+package com.spring_base.fundamentals.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class CepExecutorConfig {
+
+    private static final String V1_EXECUTOR_NAME = "cep-v1";
+    private static final String V2_EXECUTOR_NAME = "cep-v2";
+
+    @Bean(name = "cepV1Executor")
+    public ExecutorService cepV1Executor(CepExecutorProperties properties, MeterRegistry meterRegistry) {
+        BlockingQueue<Runnable> queue = properties.queueCapacity() == 0
+                ? new SynchronousQueue<>()
+                : new ArrayBlockingQueue<>(properties.queueCapacity());
+
+        // a ThreadPoolExecutor only grows past its core size once the queue is full, so core = max: every blocking
+        // lookup gets a thread up to max-pool-size before anything queues, and idle threads still time out
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                properties.maxPoolSize(),
+                properties.maxPoolSize(),
+                properties.keepAlive().toMillis(),
+                TimeUnit.MILLISECONDS,
+                queue,
+                Thread.ofPlatform().name(V1_EXECUTOR_NAME + "-", 0).factory(),
+                countingRejections(properties.rejectionPolicy(), meterRegistry)
+        );
+        executor.allowCoreThreadTimeOut(true);
+
+        new ExecutorServiceMetrics(executor, V1_EXECUTOR_NAME, Tags.empty()).bindTo(meterRegistry);
+
+        return executor;
+    }
+
+    @Bean(name = "cepV2Executor")
+    public ExecutorService cepV2Executor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(V2_EXECUTOR_NAME + "-", 0).factory());
+    }
+
+    private static RejectedExecutionHandler countingRejections(
+            CepExecutorProperties.RejectionPolicy policy,
+            MeterRegistry meterRegistry
+    ) {
+        Counter rejected = Counter.builder("executor.rejected")
+                .description("Tasks rejected because the pool and its queue were full")
+                .tag("name", V1_EXECUTOR_NAME)
+                .tag("policy", policy.name().toLowerCase())
+                .register(meterRegistry);
+
+        RejectedExecutionHandler delegate = switch (policy) {
+            case ABORT -> new ThreadPoolExecutor.AbortPolicy();
+            case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+        };
+
+        return (task, executor) -> {
+            rejected.increment();
+            delegate.rejectedExecution(task, executor);
+        };
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.spring_base.fundamentals.config;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "app.cep.executor")
+public record CepExecutorProperties(
+    @Positive int maxPoolSize,
+    @PositiveOrZero int queueCapacity,
+    @NotNull Duration keepAlive,
+    @NotNull RejectionPolicy rejectionPolicy
+) {
+    public enum RejectionPolicy { ABORT, CALLER_RUNS }
+}
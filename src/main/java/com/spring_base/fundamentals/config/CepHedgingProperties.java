@@ -0,0 +1,20 @@
+package com.spring_base.fundamentals.config;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "app.cep.hedging")
+public record CepHedgingProperties(
+    boolean enabled,
+    @DecimalMin("0.5") @DecimalMax("0.999") double percentile,
+    @NotNull Duration minDelay,
+    @DecimalMin("0.0") @DecimalMax("1.0") double maxExtraLoad,
+    @Positive int burst
+) {}
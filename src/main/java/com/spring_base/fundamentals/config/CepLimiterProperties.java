@@ -0,0 +1,21 @@
+package com.spring_base.fundamentals.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "app.cep.limiter")
+public record CepLimiterProperties(
+    @NotNull @Valid Upstream viacep,
+    @NotNull @Valid Upstream nationalize
+) {
+    public record Upstream(
+        @Positive int permits,
+        @NotNull Duration acquireTimeout
+    ) {}
+}
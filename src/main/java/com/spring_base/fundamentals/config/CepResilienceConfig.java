@@ -0,0 +1,112 @@
+package com.spring_base.fundamentals.config;
+
+import com.spring_base.fundamentals.exception.UpstreamBusyException;
+import com.spring_base.fundamentals.service.cep.UpstreamLimiter;
+import com.spring_base.fundamentals.service.cep.UpstreamResilience;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.core.IntervalFunction;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedRetryMetrics;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Slf4j
+@Configuration
+public class CepResilienceConfig {
+
+    @Bean
+    public CircuitBreakerRegistry cepCircuitBreakerRegistry(MeterRegistry meterRegistry) {
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.ofDefaults();
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+
+    @Bean
+    public RetryRegistry cepRetryRegistry(MeterRegistry meterRegistry) {
+        RetryRegistry registry = RetryRegistry.ofDefaults();
+        TaggedRetryMetrics.ofRetryRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+
+    @Bean
+    public UpstreamResilience viaCepResilience(
+            CepResilienceProperties properties,
+            CircuitBreakerRegistry circuitBreakers,
+            RetryRegistry retries,
+            MeterRegistry meterRegistry
+    ) {
+        return upstreamResilience("viacep", properties.viacep(), circuitBreakers, retries, meterRegistry);
+    }
+
+    @Bean
+    public UpstreamResilience nationalizeResilience(
+            CepResilienceProperties properties,
+            CircuitBreakerRegistry circuitBreakers,
+            RetryRegistry retries,
+            MeterRegistry meterRegistry
+    ) {
+        return upstreamResilience("nationalize", properties.nationalize(), circuitBreakers, retries, meterRegistry);
+    }
+
+    @Bean
+    public UpstreamLimiter viaCepLimiter(CepLimiterProperties properties, MeterRegistry meterRegistry) {
+        return new UpstreamLimiter("viacep", properties.viacep().permits(), properties.viacep().acquireTimeout(), meterRegistry);
+    }
+
+    @Bean
+    public UpstreamLimiter nationalizeLimiter(CepLimiterProperties properties, MeterRegistry meterRegistry) {
+        return new UpstreamLimiter("nationalize", properties.nationalize().permits(), properties.nationalize().acquireTimeout(), meterRegistry);
+    }
+
+    private static UpstreamResilience upstreamResilience(
+            String upstream,
+            CepResilienceProperties.Upstream properties,
+            CircuitBreakerRegistry circuitBreakers,
+            RetryRegistry retries,
+            MeterRegistry meterRegistry
+    ) {
+        CepResilienceProperties.Breaker breaker = properties.breaker();
+        CircuitBreaker circuitBreaker = circuitBreakers.circuitBreaker(upstream, CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(breaker.slidingWindowSize())
+                .minimumNumberOfCalls(breaker.minimumNumberOfCalls())
+                .failureRateThreshold(breaker.failureRateThreshold())
+                .slowCallRateThreshold(breaker.slowCallRateThreshold())
+                .slowCallDurationThreshold(breaker.slowCallDuration())
+                .waitDurationInOpenState(breaker.waitInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(breaker.permittedCallsInHalfOpenState())
+                .recordException(UpstreamResilience::isTransient)
+                // our own limiter refusing a call says nothing about the upstream's health
+                .ignoreExceptions(UpstreamBusyException.class)
+                .build());
+
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            CircuitBreaker.StateTransition transition = event.getStateTransition();
+            log.warn("Circuit breaker for {} moved from {} to {}", upstream, transition.getFromState(), transition.getToState());
+            meterRegistry.counter(
+                    "cep.circuitbreaker.transitions",
+                    "upstream", upstream,
+                    "from", transition.getFromState().name().toLowerCase(),
+                    "to", transition.getToState().name().toLowerCase()
+            ).increment();
+        });
+
+        CepResilienceProperties.RetryPolicy policy = properties.retry();
+        Retry retry = retries.retry(upstream, RetryConfig.custom()
+                .maxAttempts(policy.maxAttempts())
+                .intervalFunction(IntervalFunction.ofExponentialRandomBackoff(
+                        policy.initialBackoff(), policy.multiplier(), policy.randomizationFactor()))
+                .retryOnException(UpstreamResilience::isTransient)
+                .build());
+
+        return new UpstreamResilience(upstream, circuitBreaker, retry, meterRegistry);
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.spring_base.fundamentals.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "app.cep.resilience")
+public record CepResilienceProperties(
+    @NotNull @Valid Upstream viacep,
+    @NotNull @Valid Upstream nationalize
+) {
+    public record Upstream(
+        @NotNull @Valid Breaker breaker,
+        @NotNull @Valid RetryPolicy retry
+    ) {}
+
+    public record Breaker(
+        @DecimalMin("1") @DecimalMax("100") float failureRateThreshold,
+        @DecimalMin("1") @DecimalMax("100") float slowCallRateThreshold,
+        @NotNull Duration slowCallDuration,
+        @Positive int slidingWindowSize,
+        @Positive int minimumNumberOfCalls,
+        @NotNull Duration waitInOpenState,
+        @Positive int permittedCallsInHalfOpenState
+    ) {}
+
+    public record RetryPolicy(
+        @Positive int maxAttempts,
+        @NotNull Duration initialBackoff,
+        @DecimalMin("1.0") double multiplier,
+        @DecimalMin("0.0") @DecimalMax("1.0") double randomizationFactor
+    ) {}
+}
@@ -0,0 +1,12 @@
+package com.spring_base.fundamentals.config;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "app.customer.bulk")
+public record CustomerBulkProperties(
+    @Positive int batchSize,
+    @Positive int maxRows
+) {}
@@ -0,0 +1,15 @@
+package com.spring_base.fundamentals.config;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "app.customer.cache")
+public record CustomerCacheProperties(
+    @Positive long maximumSize,
+    @NotNull Duration ttl
+) {}
@@ -0,0 +1,21 @@
+package com.spring_base.fundamentals.config;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "app.customer.outbox")
+public record CustomerOutboxProperties(
+    @NotNull Sink sink,
+    @Positive int batchSize,
+    @NotNull Duration pollInterval,
+    @NotNull Duration retention,
+    @NotNull Duration purgeInterval,
+    String file
+) {
+    public enum Sink { LISTENER, FILE }
+}
@@ -0,0 +1,12 @@
+package com.spring_base.fundamentals.config;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "app.customer.query")
+public record CustomerQueryProperties(
+    @Positive int maxPageSize,
+    @Positive int exportFetchSize
+) {}
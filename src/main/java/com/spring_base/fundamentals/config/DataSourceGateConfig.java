@@ -0,0 +1,32 @@
+package com.spring_base.fundamentals.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "app.datasource.gate", name = "enabled", havingValue = "true")
+public class DataSourceGateConfig {
+
+    // wraps every Hikari pool, the auto-configured one as well as the primary/replica pair, after its properties are bound
+    @Bean
+    public static BeanPostProcessor dataSourceGate(ObjectProvider<DataSourceGateProperties> properties,
+                                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource hikari)) {
+                    return bean;
+                }
+                String pool = hikari.getPoolName() != null ? hikari.getPoolName() : beanName;
+                return new GatedDataSource(hikari, pool, hikari.getMaximumPoolSize(),
+                        properties.getObject().acquireTimeout(), meterRegistry.getObject());
+            }
+        };
+    }
+
+}
@@ -0,0 +1,14 @@
+package com.spring_base.fundamentals.config;
+
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "app.datasource.gate")
+public record DataSourceGateProperties(
+    boolean enabled,
+    @NotNull Duration acquireTimeout
+) {}
@@ -0,0 +1,92 @@
+package com.spring_base.fundamentals.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// One permit per pooled connection. Callers park on a fair semaphore (cheap for virtual threads) instead of
+// piling up inside the pool, which then only hands out connections it has and can use a short timeout
+public class GatedDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private final String pool;
+    private final Semaphore permits;
+    private final Duration acquireTimeout;
+    private final Timer wait;
+    private final Counter rejected;
+
+    public GatedDataSource(DataSource target, String pool, int permits, Duration acquireTimeout, MeterRegistry meterRegistry) {
+        super(target);
+        this.pool = pool;
+        this.permits = new Semaphore(permits, true);
+        this.acquireTimeout = acquireTimeout;
+        this.wait = Timer.builder("db.gate.wait")
+                .description("Time queued for a connection permit before asking the pool")
+                .tag("pool", pool)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejected = Counter.builder("db.gate.rejected")
+                .description("Connection requests that got no permit within the acquire timeout")
+                .tag("pool", pool)
+                .register(meterRegistry);
+
+        Gauge.builder("db.gate.available", this.permits, Semaphore::availablePermits)
+                .tag("pool", pool)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return new PermitReleasingConnection(obtainTargetDataSource().getConnection(), permits);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return new PermitReleasingConnection(obtainTargetDataSource().getConnection(username, password), permits);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    // the container closes the wrapper it was handed, the pool behind it has to go down with it
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable pool) {
+            pool.close();
+        }
+    }
+
+    private void acquire() throws SQLException {
+        long start = System.nanoTime();
+        boolean acquired = false;
+        try {
+            acquired = permits.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        wait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            rejected.increment();
+            throw new SQLTransientConnectionException("No " + pool + " database connection available within " + acquireTimeout);
+        }
+    }
+
+}
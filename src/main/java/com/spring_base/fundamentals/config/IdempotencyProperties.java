@@ -0,0 +1,21 @@
+package com.spring_base.fundamentals.config;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "app.idempotency")
+public record IdempotencyProperties(
+    @NotNull Store store,
+    @NotNull Duration ttl,
+    @NotNull Duration lockTimeout,
+    @Positive long maximumSize,
+    @NotNull Duration purgeInterval
+) {
+    // MEMORY is per instance; JDBC shares keys across replicas through PostgreSQL
+    public enum Store { MEMORY, JDBC }
+}
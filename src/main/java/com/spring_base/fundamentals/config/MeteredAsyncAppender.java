@@ -0,0 +1,78 @@
+package com.spring_base.fundamentals.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+
+import java.util.List;
+
+// Logback's AsyncAppender with the losses made visible. Configured by logback-spring.xml before the Spring context
+// exists, so it registers on the global registry, which Spring Boot wires to the Prometheus one
+public class MeteredAsyncAppender extends AsyncAppender {
+
+    private final MeterRegistry meterRegistry;
+    private Counter discarded;
+    private Counter dropped;
+    private List<Gauge> gauges = List.of();
+
+    public MeteredAsyncAppender() {
+        this(Metrics.globalRegistry);
+    }
+
+    MeteredAsyncAppender(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        discarded = eventCounter("discarded", "Events below WARN skipped because the queue was past the discarding threshold");
+        dropped = eventCounter("dropped", "Events lost because the queue was full and the appender never blocks");
+        gauges = List.of(
+                Gauge.builder("logging.async.queue.size", this, MeteredAsyncAppender::getNumberOfElementsInQueue)
+                        .description("Events waiting for the appender's worker thread")
+                        .tag("appender", getName())
+                        .register(meterRegistry),
+                Gauge.builder("logging.async.queue.capacity", this, MeteredAsyncAppender::getQueueSize)
+                        .tag("appender", getName())
+                        .register(meterRegistry));
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        // a reconfigured logger context creates a new appender with the same name, whose gauges must not hit these
+        gauges.forEach(meterRegistry::remove);
+        gauges = List.of();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (isQueueBelowDiscardingThreshold() && isDiscardable(event)) {
+            discarded.increment();
+            return;
+        }
+        // with neverBlock a full queue silently rejects the offer; checking first lets the drop be counted
+        // (another thread can still fill the last slot in between, so this may undercount, never overcount)
+        if (isNeverBlock() && getRemainingCapacity() == 0) {
+            dropped.increment();
+            return;
+        }
+        super.append(event);
+    }
+
+    private Counter eventCounter(String result, String description) {
+        return Counter.builder("logging.async.events")
+                .description(description)
+                .tag("appender", getName())
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.spring_base.fundamentals.config;
+
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "app.datasource.replica")
+public record ReplicaDataSourceProperties(
+    String url,
+    String username,
+    String password,
+    @NotNull Duration maxLag,
+    @NotNull Duration lagCheckInterval
+) {}
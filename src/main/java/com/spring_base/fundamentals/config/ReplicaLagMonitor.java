@@ -0,0 +1,62 @@
+package com.spring_base.fundamentals.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+
+@Slf4j
+public class ReplicaLagMonitor {
+
+    // a replica that has replayed everything it received is current even if the primary has been idle for a while
+    private static final String LAG_SQL = """
+            SELECT COALESCE(CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                                 ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 END, 0)""";
+
+    private final JdbcTemplate replica;
+    private final long maxLagMillis;
+
+    private volatile long lagMillis;
+    // reads stay on the primary until the first check succeeds
+    private volatile boolean usable;
+
+    public ReplicaLagMonitor(JdbcTemplate replica, Duration maxLag, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.maxLagMillis = maxLag.toMillis();
+
+        Gauge.builder("db.replica.lag", this, monitor -> monitor.lagMillis)
+                .description("Replication lag of the read replica, as of the last check")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval}")
+    public void check() {
+        boolean wasUsable = usable;
+        try {
+            Double lag = replica.queryForObject(LAG_SQL, Double.class);
+            lagMillis = lag == null ? 0 : lag.longValue();
+            usable = lagMillis <= maxLagMillis;
+            if (wasUsable && !usable) {
+                log.warn("Replica lag {}ms is over {}ms, routing reads to the primary", lagMillis, maxLagMillis);
+            }
+        } catch (DataAccessException e) {
+            usable = false;
+            if (wasUsable) {
+                log.warn("Replica unreachable, routing reads to the primary: {}", e.getMessage());
+            }
+        }
+        if (!wasUsable && usable) {
+            log.info("Replica lag {}ms, routing reads to the replica", lagMillis);
+        }
+    }
+
+    public boolean usable() {
+        return usable;
+    }
+
+}
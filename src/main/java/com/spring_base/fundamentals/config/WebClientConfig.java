@@ -1,15 +1,59 @@
 package com.spring_base.fundamentals.config;
 
+import io.netty.channel.ChannelOption;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
 
 @Configuration
 public class WebClientConfig {
 
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider upstreamConnectionProvider(ApiProperties apiProperties) {
+        ConnectionProvider.Builder builder = ConnectionProvider.builder("cep-upstreams")
+                .metrics(true);
+
+        forUpstream(builder, apiProperties.viacep().url(), apiProperties.viacep().pool());
+        forUpstream(builder, apiProperties.second().url(), apiProperties.second().pool());
+
+        return builder.build();
+    }
+
     @Bean
-    public WebClient webClient() {
-        return WebClient.builder().build();
+    public WebClient webClient(ConnectionProvider upstreamConnectionProvider, ApiProperties apiProperties) {
+        ApiProperties.Http http = apiProperties.http();
+
+        HttpClient httpClient = HttpClient.create(upstreamConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, Math.toIntExact(http.connectTimeout().toMillis()))
+                .responseTimeout(http.responseTimeout())
+                .protocol(http.http2()
+                        ? new HttpProtocol[]{HttpProtocol.H2, HttpProtocol.HTTP11}
+                        : new HttpProtocol[]{HttpProtocol.HTTP11});
+
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    private static void forUpstream(ConnectionProvider.Builder builder, String url, ApiProperties.Pool pool) {
+        URI uri = URI.create(url);
+        int port = uri.getPort() != -1 ? uri.getPort() : ("https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80);
+
+        // Reactor Netty keys its pools by the unresolved host:port taken from the request URI
+        builder.forRemoteHost(InetSocketAddress.createUnresolved(uri.getHost(), port), spec -> spec
+                .maxConnections(pool.maxConnections())
+                .pendingAcquireMaxCount(pool.pendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.pendingAcquireTimeout())
+                .maxIdleTime(pool.maxIdleTime())
+                .maxLifeTime(pool.maxLifeTime())
+                .evictInBackground(pool.evictionInterval()));
     }
 
 }
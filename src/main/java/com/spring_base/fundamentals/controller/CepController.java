@@ -1,13 +1,19 @@
 package com.spring_base.fundamentals.controller;
 
+import com.spring_base.fundamentals.dto.CepBatchRequest;
+import com.spring_base.fundamentals.dto.CepBatchResponse;
+import com.spring_base.fundamentals.dto.CepResponse;
+import com.spring_base.fundamentals.service.cep.CepBatchService;
 import com.spring_base.fundamentals.service.cep.CepFetcher;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
-
-import java.util.Map;
+import reactor.core.publisher.Mono;
 
 @RestController
 @RequestMapping("/cep")
@@ -15,23 +21,39 @@ public class CepController {
 
     private final CepFetcher v1Fetcher;
     private final CepFetcher v2Fetcher;
+    private final CepFetcher v3Fetcher;
+    private final CepBatchService cepBatchService;
 
     public CepController(
         @Qualifier("v1") CepFetcher v1Fetcher,
-        @Qualifier("v2") CepFetcher v2Fetcher
+        @Qualifier("v2") CepFetcher v2Fetcher,
+        @Qualifier("v3") CepFetcher v3Fetcher,
+        CepBatchService cepBatchService
     ){
         this.v1Fetcher = v1Fetcher;
         this.v2Fetcher = v2Fetcher;
+        this.v3Fetcher = v3Fetcher;
+        this.cepBatchService = cepBatchService;
     }
 
 
     @GetMapping("/v1/{cep}")
-    public Map<String, Object> getCepCompletableFuture(@PathVariable String cep) {
+    public CepResponse getCepCompletableFuture(@PathVariable String cep) {
         return v1Fetcher.fetch(cep);
     }
 
     @GetMapping("/v2/{cep}")
-    public Map<String, Object> getCepVirtualThreads(@PathVariable String cep) {
+    public CepResponse getCepVirtualThreads(@PathVariable String cep) {
         return v2Fetcher.fetch(cep);
     }
+
+    @GetMapping("/v3/{cep}")
+    public Mono<CepResponse> getCepReactive(@PathVariable String cep) {
+        return v3Fetcher.fetchAsync(cep);
+    }
+
+    @PostMapping("/batch")
+    public Mono<CepBatchResponse> getCepBatch(@RequestBody @Valid CepBatchRequest request) {
+        return cepBatchService.fetchAll(request.ceps());
+    }
 }
@@ -0,0 +1,35 @@
+package com.spring_base.fundamentals.controller;
+
+import com.spring_base.fundamentals.dto.CepBatchItem;
+import com.spring_base.fundamentals.service.cep.CepStreamService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedReader;
+import java.io.Reader;
+
+@RestController
+@RequestMapping("/cep")
+@RequiredArgsConstructor
+public class CepStreamController {
+
+    private final CepStreamService cepStreamService;
+
+    @PostMapping(
+            value = "/stream",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE}
+    )
+    public Flux<CepBatchItem> streamCeps(Reader body) {
+        Flux<String> lines = Flux.fromStream(() -> new BufferedReader(body).lines())
+                .subscribeOn(Schedulers.boundedElastic());
+
+        return cepStreamService.stream(lines);
+    }
+
+}
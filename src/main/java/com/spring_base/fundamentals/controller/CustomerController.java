@@ -1,15 +1,22 @@
 package com.spring_base.fundamentals.controller;
 
+import com.spring_base.fundamentals.dto.CustomerBulkResponse;
+import com.spring_base.fundamentals.dto.CustomerPage;
+import com.spring_base.fundamentals.dto.CustomerResponse;
+import com.spring_base.fundamentals.dto.CustomerView;
 import com.spring_base.fundamentals.model.Customer;
+import com.spring_base.fundamentals.service.customer.CustomerBulkService;
+import com.spring_base.fundamentals.service.customer.CustomerExportService;
 import com.spring_base.fundamentals.service.customer.CustomerService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
-import java.util.Map;
 
 @RestController
 @RequestMapping("/customer")
@@ -18,34 +25,59 @@ public class CustomerController {
 
     private final CustomerService customerService;
 
+    private final CustomerExportService customerExportService;
+
+    private final CustomerBulkService customerBulkService;
+
     @PostMapping
-    public ResponseEntity<Customer> createCustomer(@RequestBody @Valid Customer customer) {
-        Customer created = customerService.createCustomer(customer);
+    public ResponseEntity<CustomerView> createCustomer(@RequestBody @Valid Customer customer) {
+        CustomerView created = customerService.createCustomer(customer);
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    @PostMapping("/bulk")
+    public CustomerBulkResponse createCustomers(@RequestBody List<Customer> customers) {
+        return customerBulkService.createAll(customers);
+    }
+
     @PutMapping("/{id}")
-    public Map<String, Object> putCustomer(@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey, @PathVariable Long id, @RequestBody @Valid Customer customer) {
+    public CustomerResponse putCustomer(@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey, @PathVariable Long id, @RequestBody @Valid Customer customer) {
         return customerService.replaceCustomer(idempotencyKey, id, customer);
     }
 
     @PatchMapping("/{id}")
-    public Map<String, Object> patchCustomer(@PathVariable Long id, @RequestBody Customer customer) {
+    public CustomerResponse patchCustomer(@PathVariable Long id, @RequestBody Customer customer) {
         return customerService.updateCustomer(id, customer);
     }
 
     @GetMapping("/{id}")
-    public Map<String, Object> getCustomer(@PathVariable Long id) {
+    public CustomerResponse getCustomer(@PathVariable Long id) {
         return customerService.getCustomer(id);
     }
 
     @GetMapping("")
-    public List<Customer> getAllCustomers() {
-        return customerService.getAllCustomers();
+    public CustomerPage getCustomers(@RequestParam(required = false) Long after, @RequestParam(defaultValue = "50") int limit) {
+        return customerService.listCustomers(after, limit);
+    }
+
+    @GetMapping("/search")
+    public CustomerPage searchCustomers(@RequestParam(required = false) String email,
+                                        @RequestParam(required = false) String namePrefix,
+                                        @RequestParam(required = false) Long after,
+                                        @RequestParam(defaultValue = "50") int limit) {
+        return customerService.searchCustomers(email, namePrefix, after, limit);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportCustomers() {
+        StreamingResponseBody body = customerExportService::exportTo;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @DeleteMapping("/{id}")
-    public Customer deleteCustomer(@PathVariable Long id) {
+    public CustomerView deleteCustomer(@PathVariable Long id) {
         return customerService.deleteCustomer(id);
     }
 
@@ -0,0 +1,16 @@
+package com.spring_base.fundamentals.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CepBatchItem(String cep, CepResponse data, String error) {
+
+    public static CepBatchItem success(String cep, CepResponse data) {
+        return new CepBatchItem(cep, data, null);
+    }
+
+    public static CepBatchItem failure(String cep, String error) {
+        return new CepBatchItem(cep, null, error);
+    }
+
+}
@@ -0,0 +1,8 @@
+package com.spring_base.fundamentals.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public record CepBatchRequest(@NotEmpty List<@NotBlank String> ceps) {}
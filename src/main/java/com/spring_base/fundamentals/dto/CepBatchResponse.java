@@ -0,0 +1,11 @@
+package com.spring_base.fundamentals.dto;
+
+import java.util.List;
+
+public record CepBatchResponse(
+    List<CepBatchItem> results,
+    int requested,
+    int unique,
+    int failed,
+    long elapsedMs
+) {}
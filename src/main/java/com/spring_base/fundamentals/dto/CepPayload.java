@@ -0,0 +1,11 @@
+package com.spring_base.fundamentals.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+public sealed interface CepPayload permits ViaCepAddress, NationalizeResult, RawJson {
+
+    // "not found" answers are cached for a shorter time and never used as a stale fallback
+    @JsonIgnore
+    boolean notFound();
+
+}
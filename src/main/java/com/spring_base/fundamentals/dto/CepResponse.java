@@ -0,0 +1,6 @@
+package com.spring_base.fundamentals.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CepResponse(CepPayload viaCep, CepPayload nationalize, long elapsedMs, String method) {}
@@ -0,0 +1,4 @@
+package com.spring_base.fundamentals.dto;
+
+// index is the position of the rejected row in the request body
+public record CustomerBulkError(int index, String message) {}
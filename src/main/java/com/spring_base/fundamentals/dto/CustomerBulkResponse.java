@@ -0,0 +1,11 @@
+package com.spring_base.fundamentals.dto;
+
+import java.util.List;
+
+public record CustomerBulkResponse(
+    int requested,
+    int created,
+    int failed,
+    List<CustomerBulkError> errors,
+    long elapsedMs
+) {}
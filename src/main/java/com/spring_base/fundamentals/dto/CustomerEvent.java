@@ -0,0 +1,16 @@
+package com.spring_base.fundamentals.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.Instant;
+
+// payload is the row as JSON. id is unique but not a resume point: ids are taken before commit and concurrent relays
+// skip each other's locked rows, so events can arrive out of id order (and more than once). Consumers dedupe and
+// order per customer by (customerId, payload version), ignoring anything not newer than what they already applied
+public record CustomerEvent(
+        long id,
+        long customerId,
+        String type,
+        @JsonRawValue String payload,
+        Instant createdAt
+) {}
@@ -0,0 +1,6 @@
+package com.spring_base.fundamentals.dto;
+
+import java.util.List;
+
+// nextAfter is the cursor for the following page (?after=nextAfter), null on the last page
+public record CustomerPage(List<CustomerView> items, Long nextAfter) {}
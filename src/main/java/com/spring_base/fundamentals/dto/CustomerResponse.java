@@ -0,0 +1,3 @@
+package com.spring_base.fundamentals.dto;
+
+public record CustomerResponse(CustomerView customer, long elapsedMs, String method) {}
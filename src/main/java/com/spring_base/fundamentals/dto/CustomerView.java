@@ -0,0 +1,12 @@
+package com.spring_base.fundamentals.dto;
+
+import com.spring_base.fundamentals.model.Customer;
+
+// immutable read model: repository projections select straight into it, so reads never build or track an entity
+public record CustomerView(Long id, String name, String email, Long version) {
+
+    public static CustomerView of(Customer customer) {
+        return new CustomerView(customer.getId(), customer.getName(), customer.getEmail(), customer.getVersion());
+    }
+
+}
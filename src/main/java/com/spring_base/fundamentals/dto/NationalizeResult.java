@@ -0,0 +1,20 @@
+package com.spring_base.fundamentals.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record NationalizeResult(Integer count, String name, List<Country> country) implements CepPayload {
+
+    public record Country(@JsonProperty("country_id") String countryId, double probability) {}
+
+    @Override
+    public boolean notFound() {
+        return count != null && count == 0;
+    }
+
+}
@@ -0,0 +1,14 @@
+package com.spring_base.fundamentals.dto;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import tools.jackson.databind.util.RawValue;
+
+// Upstream body embedded verbatim in our response: no parsing on the way in, no escaping on the way out
+public record RawJson(String json, boolean notFound) implements CepPayload {
+
+    @JsonValue
+    public RawValue value() {
+        return new RawValue(json);
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.spring_base.fundamentals.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record ViaCepAddress(
+    String cep,
+    String logradouro,
+    String complemento,
+    String unidade,
+    String bairro,
+    String localidade,
+    String uf,
+    String estado,
+    String regiao,
+    String ibge,
+    String gia,
+    String ddd,
+    String siafi,
+    Boolean erro
+) implements CepPayload {
+
+    @Override
+    public boolean notFound() {
+        return Boolean.TRUE.equals(erro);
+    }
+
+}
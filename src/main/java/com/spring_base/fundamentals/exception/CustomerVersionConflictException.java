@@ -0,0 +1,9 @@
+package com.spring_base.fundamentals.exception;
+
+public class CustomerVersionConflictException extends RuntimeException{
+
+    public CustomerVersionConflictException(Long id, Long expectedVersion) {
+        super("Customer " + id + " was modified concurrently, expected version " + expectedVersion);
+    }
+
+}
@@ -1,6 +1,9 @@
 package com.spring_base.fundamentals.exception;
 
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -8,6 +11,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -22,6 +26,67 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(IdempotencyConflictException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, Object> handleIdempotencyConflict(IdempotencyConflictException ex) {
+        return Map.of(
+                "error", "Conflict",
+                "message", ex.getMessage(),
+                "status", HttpStatus.CONFLICT
+        );
+    }
+
+    @ExceptionHandler(CustomerVersionConflictException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, Object> handleCustomerVersionConflict(CustomerVersionConflictException ex) {
+        return Map.of(
+                "error", "Conflict",
+                "message", ex.getMessage(),
+                "status", HttpStatus.CONFLICT
+        );
+    }
+
+    @ExceptionHandler(InvalidCepBatchException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, Object> handleInvalidCepBatch(InvalidCepBatchException ex) {
+        return Map.of(
+                "error", "Bad Request",
+                "message", ex.getMessage(),
+                "status", HttpStatus.BAD_REQUEST
+        );
+    }
+
+    @ExceptionHandler(InvalidCustomerBulkException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, Object> handleInvalidCustomerBulk(InvalidCustomerBulkException ex) {
+        return Map.of(
+                "error", "Bad Request",
+                "message", ex.getMessage(),
+                "status", HttpStatus.BAD_REQUEST
+        );
+    }
+
+    @ExceptionHandler(InvalidCustomerSearchException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, Object> handleInvalidCustomerSearch(InvalidCustomerSearchException ex) {
+        return Map.of(
+                "error", "Bad Request",
+                "message", ex.getMessage(),
+                "status", HttpStatus.BAD_REQUEST
+        );
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, Object> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        // the driver message names tables and values, so it is not echoed back
+        return Map.of(
+                "error", "Conflict",
+                "message", "Request conflicts with existing data (e.g. email already in use)",
+                "status", HttpStatus.CONFLICT
+        );
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public Map<String, Object> handleValidationError(MethodArgumentNotValidException ex) {
@@ -36,6 +101,47 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(RejectedExecutionException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public Map<String, Object> handleRejectedExecution(RejectedExecutionException ex) {
+        return Map.of(
+                "error", "Service Unavailable",
+                "message", "Server is at capacity, try again later",
+                "status", HttpStatus.SERVICE_UNAVAILABLE
+        );
+    }
+
+    @ExceptionHandler(UpstreamBusyException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public Map<String, Object> handleUpstreamBusy(UpstreamBusyException ex) {
+        return Map.of(
+                "error", "Service Unavailable",
+                "message", ex.getMessage(),
+                "status", HttpStatus.SERVICE_UNAVAILABLE
+        );
+    }
+
+    @ExceptionHandler(UpstreamUnavailableException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public Map<String, Object> handleUpstreamUnavailable(UpstreamUnavailableException ex) {
+        return Map.of(
+                "error", "Service Unavailable",
+                "message", ex.getMessage(),
+                "status", HttpStatus.SERVICE_UNAVAILABLE
+        );
+    }
+
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public Map<String, Object> handleDatabaseUnavailable(RuntimeException ex) {
+        // no connection could be obtained (gate or pool timeout, database down): retryable, unlike a 500
+        return Map.of(
+                "error", "Service Unavailable",
+                "message", "Database is busy or unreachable, retry later",
+                "status", HttpStatus.SERVICE_UNAVAILABLE
+        );
+    }
+
     @ExceptionHandler(RuntimeException.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public Map<String, Object> handleRuntimeException(RuntimeException ex) {
@@ -0,0 +1,9 @@
+package com.spring_base.fundamentals.exception;
+
+public class IdempotencyConflictException extends RuntimeException{
+
+    public IdempotencyConflictException(String key) {
+        super("A request with Idempotency-Key " + key + " is already in progress");
+    }
+
+}
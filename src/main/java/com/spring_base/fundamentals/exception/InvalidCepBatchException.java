@@ -0,0 +1,9 @@
+package com.spring_base.fundamentals.exception;
+
+public class InvalidCepBatchException extends RuntimeException{
+
+    public InvalidCepBatchException(int size, int maxSize) {
+        super("Batch has " + size + " CEPs, the maximum is " + maxSize);
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.spring_base.fundamentals.exception;
+
+public class InvalidCustomerBulkException extends RuntimeException{
+
+    public InvalidCustomerBulkException(int size, int maxSize) {
+        super("Bulk request has " + size + " customers, the maximum is " + maxSize);
+    }
+
+}
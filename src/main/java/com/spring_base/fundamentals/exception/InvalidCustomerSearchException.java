@@ -0,0 +1,9 @@
+package com.spring_base.fundamentals.exception;
+
+public class InvalidCustomerSearchException extends RuntimeException{
+
+    public InvalidCustomerSearchException() {
+        super("Customer search needs an email or a namePrefix");
+    }
+
+}
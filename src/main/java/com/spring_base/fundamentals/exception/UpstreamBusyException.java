@@ -0,0 +1,9 @@
+package com.spring_base.fundamentals.exception;
+
+public class UpstreamBusyException extends RuntimeException{
+
+    public UpstreamBusyException(String upstream) {
+        super("Too many concurrent calls to upstream: " + upstream);
+    }
+
+}
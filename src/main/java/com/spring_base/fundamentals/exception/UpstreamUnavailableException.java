@@ -0,0 +1,9 @@
+package com.spring_base.fundamentals.exception;
+
+public class UpstreamUnavailableException extends RuntimeException{
+
+    public UpstreamUnavailableException(String upstream, Throwable cause) {
+        super("Upstream temporarily unavailable: " + upstream, cause);
+    }
+
+}
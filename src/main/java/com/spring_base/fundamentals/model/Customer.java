@@ -1,24 +1,43 @@
 package com.spring_base.fundamentals.model;
 
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import jakarta.persistence.Id;
 
 @Entity
 @Data
+@JsonPropertyOrder({"id", "name", "email", "version"})
 @AllArgsConstructor
 @NoArgsConstructor
 public class Customer {
 
     @Id
-    @GeneratedValue(strategy=GenerationType.IDENTITY)
+    // pooled sequence instead of IDENTITY, so Hibernate can assign ids up front and batch the inserts
+    // (V1__baseline.sql starts it past the ids inserted under IDENTITY)
+    @GeneratedValue(strategy=GenerationType.SEQUENCE, generator = "customer_seq")
+    @SequenceGenerator(name = "customer_seq", sequenceName = "customer_seq", allocationSize = 50)
     private Long id;
     private @NotBlank String name;
     private @Email String email;
+
+    // optimistic lock: a PUT/PATCH carrying the version it read only applies if nobody wrote in between
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    public Customer(Long id, String name, String email) {
+        this(id, name, email, null);
+    }
 }
@@ -1,7 +1,94 @@
 package com.spring_base.fundamentals.repository;
 
+import com.spring_base.fundamentals.dto.CustomerView;
 import com.spring_base.fundamentals.model.Customer;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
+
+    // reads and RETURNING writes project into CustomerView: only the columns the API returns, no managed entities
+
+    // loads CustomerCache misses: a read-write transaction keeps it on the primary, since a row read from a lagging
+    // replica after the writer's evict would stay in the cache for the whole TTL
+    @Transactional
+    Optional<CustomerView> findViewById(Long id);
+
+    List<CustomerView> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // lower(...) on both sides so the expression indexes from V2__customer_search_indexes.sql are used
+
+    @Query(value = """
+            SELECT id, name, email, version FROM customer
+            WHERE lower(email) = lower(:email)
+              AND (CAST(:namePattern AS varchar) IS NULL OR lower(name) LIKE lower(CAST(:namePattern AS varchar)) ESCAPE '\\')
+              AND id > :after
+            ORDER BY id LIMIT :limit""", nativeQuery = true)
+    List<CustomerView> searchByEmail(String email, String namePattern, long after, int limit);
+
+    @Query(value = """
+            SELECT id, name, email, version FROM customer
+            WHERE lower(name) LIKE lower(:namePattern) ESCAPE '\\'
+              AND id > :after
+            ORDER BY id LIMIT :limit""", nativeQuery = true)
+    List<CustomerView> searchByNamePrefix(String namePattern, long after, int limit);
+
+    // single-statement writes: RETURNING hands back the new row, so no SELECT before or after, and the data-modifying
+    // CTE records the change event in the same statement (transactional outbox, see CustomerOutboxRelay).
+    // A null version skips the optimistic check; an empty result means not found or a stale version
+
+    @Transactional
+    @Query(value = """
+            WITH changed AS (
+                UPDATE customer SET name = :name, email = :email, version = version + 1
+                WHERE id = :id AND (CAST(:version AS bigint) IS NULL OR version = CAST(:version AS bigint))
+                RETURNING *
+            ), event AS (
+                INSERT INTO customer_outbox (customer_id, type, payload)
+                SELECT id, 'UPDATED', CAST(to_json(changed) AS text) FROM changed
+            )
+            SELECT id, name, email, version FROM changed""", nativeQuery = true)
+    Optional<CustomerView> replaceReturning(Long id, String name, String email, Long version);
+
+    @Transactional
+    @Query(value = """
+            WITH changed AS (
+                UPDATE customer SET name = COALESCE(CAST(:name AS varchar), name),
+                                    email = COALESCE(CAST(:email AS varchar), email),
+                                    version = version + 1
+                WHERE id = :id AND (CAST(:version AS bigint) IS NULL OR version = CAST(:version AS bigint))
+                RETURNING *
+            ), event AS (
+                INSERT INTO customer_outbox (customer_id, type, payload)
+                SELECT id, 'UPDATED', CAST(to_json(changed) AS text) FROM changed
+            )
+            SELECT id, name, email, version FROM changed""", nativeQuery = true)
+    Optional<CustomerView> patchReturning(Long id, String name, String email, Long version);
+
+    @Transactional
+    @Query(value = """
+            WITH deleted AS (
+                DELETE FROM customer WHERE id = :id RETURNING *
+            ), event AS (
+                INSERT INTO customer_outbox (customer_id, type, payload)
+                SELECT id, 'DELETED', CAST(to_json(deleted) AS text) FROM deleted
+            )
+            SELECT id, name, email, version FROM deleted""", nativeQuery = true)
+    Optional<CustomerView> deleteReturning(Long id);
+
+    // inserts go through JPA (pooled ids, JDBC batching), so their events are added by the caller's transaction after the flush
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO customer_outbox (customer_id, type, payload)
+            SELECT c.id, 'CREATED', CAST(to_json(c) AS text) FROM customer c WHERE c.id IN (:ids)""", nativeQuery = true)
+    int recordCreatedEvents(Collection<Long> ids);
+
 }
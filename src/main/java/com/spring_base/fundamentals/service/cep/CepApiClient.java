@@ -1,37 +1,86 @@
 package com.spring_base.fundamentals.service.cep;
 
 import com.spring_base.fundamentals.config.ApiProperties;
+import com.spring_base.fundamentals.dto.CepPayload;
+import com.spring_base.fundamentals.dto.NationalizeResult;
+import com.spring_base.fundamentals.dto.RawJson;
+import com.spring_base.fundamentals.dto.ViaCepAddress;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Predicate;
 
 @Component
 public class CepApiClient {
 
     private final WebClient webClient;
     private final ApiProperties apiProperties;
+    private final CepLookupCache cepLookupCache;
+    private final RequestHedger requestHedger;
+    private final UpstreamResilience viaCepResilience;
+    private final UpstreamResilience nationalizeResilience;
+    private final UpstreamLimiter viaCepLimiter;
+    private final UpstreamLimiter nationalizeLimiter;
 
     public CepApiClient(
             WebClient webClient,
-            ApiProperties apiProperties
+            ApiProperties apiProperties,
+            CepLookupCache cepLookupCache,
+            RequestHedger requestHedger,
+            @Qualifier("viaCepResilience") UpstreamResilience viaCepResilience,
+            @Qualifier("nationalizeResilience") UpstreamResilience nationalizeResilience,
+            @Qualifier("viaCepLimiter") UpstreamLimiter viaCepLimiter,
+            @Qualifier("nationalizeLimiter") UpstreamLimiter nationalizeLimiter
     ) {
         this.webClient = webClient;
         this.apiProperties = apiProperties;
+        this.cepLookupCache = cepLookupCache;
+        this.requestHedger = requestHedger;
+        this.viaCepResilience = viaCepResilience;
+        this.nationalizeResilience = nationalizeResilience;
+        this.viaCepLimiter = viaCepLimiter;
+        this.nationalizeLimiter = nationalizeLimiter;
+    }
+
+    public CepPayload fetchViaCep(String cep) {
+        return viaCep(cep).block();
     }
 
-    public String fetchViaCep(String cep) {
-        return webClient.get()
+    public CepPayload fetchNationalize(String name) {
+        return nationalize(name).block();
+    }
+
+    public Mono<CepPayload> viaCep(String cep) {
+        return cepLookupCache.viaCep(cep, this::requestViaCep);
+    }
+
+    // Nationalize only enriches the response: when it fails (or its limiter is full) and nothing stale is cached it completes empty
+    public Mono<CepPayload> nationalize(String name) {
+        return nationalizeResilience.omitOnError(cepLookupCache.nationalize(name, this::requestNationalize));
+    }
+
+    // cache loaders: the limiter wraps each HTTP attempt, so cache hits and coalesced waiters take no permit while
+    // every hedge and retry does
+    private Mono<CepPayload> requestViaCep(String cep) {
+        return viaCepResilience.decorate(requestHedger.hedge("viacep", () -> viaCepLimiter.limit(() -> decode(webClient.get()
                 .uri(apiProperties.viacep().url() + "/" + cep + "/json")
-                .retrieve()
-                .bodyToMono(String.class)
-                .block();
+                .retrieve(), ViaCepAddress.class, body -> body.contains("\"erro\"")))));
     }
 
-    public String fetchNationalize(String name) {
-        return webClient.get()
+    private Mono<CepPayload> requestNationalize(String name) {
+        return nationalizeResilience.decorate(requestHedger.hedge("nationalize", () -> nationalizeLimiter.limit(() -> decode(webClient.get()
                 .uri(apiProperties.second().url() + "/?name=" + name)
-                .retrieve()
-                .bodyToMono(String.class)
-                .block();
+                .retrieve(), NationalizeResult.class, body -> body.contains("\"count\":0")))));
+    }
+
+    private Mono<CepPayload> decode(WebClient.ResponseSpec response, Class<? extends CepPayload> type, Predicate<String> isNotFound) {
+        if (apiProperties.payload() == ApiProperties.PayloadMode.RAW) {
+            return response.bodyToMono(String.class).map(body -> new RawJson(body, isNotFound.test(body)));
+        }
+        // Jackson reads straight from the response buffers, without an intermediate String
+        return response.bodyToMono(type).cast(CepPayload.class);
     }
 
 }
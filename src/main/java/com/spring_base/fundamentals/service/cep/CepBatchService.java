@@ -0,0 +1,91 @@
+package com.spring_base.fundamentals.service.cep;
+
+import com.spring_base.fundamentals.config.CepBatchProperties;
+import com.spring_base.fundamentals.dto.CepBatchItem;
+import com.spring_base.fundamentals.dto.CepBatchResponse;
+import com.spring_base.fundamentals.exception.InvalidCepBatchException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@Slf4j
+public class CepBatchService {
+
+    private final CepFetcher fetcher;
+
+    private final CepBatchProperties properties;
+
+    private final Timer batches;
+
+    private final Counter failedItems;
+
+    public CepBatchService(
+            @Qualifier("v3") CepFetcher fetcher,
+            CepBatchProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.fetcher = fetcher;
+        this.properties = properties;
+        this.batches = Timer.builder("cep.batch")
+                .description("Time to answer a CEP batch, every lookup included")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        // each lookup's own failure is also counted by the v3 fetcher (cep.fetch.errors{version=v3})
+        this.failedItems = Counter.builder("cep.batch.failures")
+                .description("Batch items answered with an error instead of data")
+                .register(meterRegistry);
+    }
+
+    public Mono<CepBatchResponse> fetchAll(List<String> ceps) {
+        if (ceps.size() > properties.maxSize()) {
+            throw new InvalidCepBatchException(ceps.size(), properties.maxSize());
+        }
+
+        Set<String> unique = new LinkedHashSet<>();
+        ceps.forEach(cep -> unique.add(cep.trim()));
+
+        log.debug("Fetching batch of {} CEPs ({} unique)", ceps.size(), unique.size());
+        long start = System.nanoTime();
+
+        return Flux.fromIterable(unique)
+                .flatMapSequential(this::fetchOne, properties.maxInFlight())
+                .collectList()
+                .map(results -> {
+                    long elapsed = System.nanoTime() - start;
+                    batches.record(elapsed, TimeUnit.NANOSECONDS);
+                    long duration = TimeUnit.NANOSECONDS.toMillis(elapsed);
+                    int failed = (int) results.stream().filter(item -> item.error() != null).count();
+                    log.debug("Batch of {} CEPs completed in {}ms with {} failures", unique.size(), duration, failed);
+
+                    return new CepBatchResponse(results, ceps.size(), unique.size(), failed, duration);
+                });
+    }
+
+    public Mono<CepBatchItem> fetchOne(String cep) {
+        return fetcher.fetchAsync(cep)
+                .map(data -> CepBatchItem.success(cep, data))
+                .switchIfEmpty(Mono.fromSupplier(() -> CepBatchItem.failure(cep, "No data returned")))
+                .onErrorResume(e -> {
+                    // an outage fails every item of every batch: the counter carries it, not one log line per CEP
+                    log.debug("Batch lookup failed for CEP {}: {}", cep, e.toString());
+                    return Mono.just(CepBatchItem.failure(cep, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName()));
+                })
+                .doOnNext(item -> {
+                    if (item.error() != null) {
+                        failedItems.increment();
+                    }
+                });
+    }
+
+}
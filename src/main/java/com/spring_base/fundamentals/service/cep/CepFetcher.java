@@ -1,9 +1,14 @@
 package com.spring_base.fundamentals.service.cep;
 
-import java.util.Map;
+import com.spring_base.fundamentals.dto.CepResponse;
+import reactor.core.publisher.Mono;
 
 public interface CepFetcher {
 
-    public Map<String, Object> fetch(String cep);
+    public CepResponse fetch(String cep);
+
+    public default Mono<CepResponse> fetchAsync(String cep) {
+        return Mono.fromCallable(() -> fetch(cep));
+    }
 
 }
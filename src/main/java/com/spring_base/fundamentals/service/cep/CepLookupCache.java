@@ -0,0 +1,93 @@
+package com.spring_base.fundamentals.service.cep;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.spring_base.fundamentals.config.CepCacheProperties;
+import com.spring_base.fundamentals.dto.CepPayload;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+@Component
+public class CepLookupCache {
+
+    private final Lookup viaCep;
+    private final Lookup nationalize;
+
+    public CepLookupCache(CepCacheProperties properties, MeterRegistry meterRegistry) {
+        this.viaCep = new Lookup("viacep", properties.viacep(), meterRegistry);
+        this.nationalize = new Lookup("nationalize", properties.nationalize(), meterRegistry);
+    }
+
+    public Mono<CepPayload> viaCep(String cep, Function<String, Mono<CepPayload>> loader) {
+        return viaCep.get(cep, loader);
+    }
+
+    public Mono<CepPayload> nationalize(String name, Function<String, Mono<CepPayload>> loader) {
+        return nationalize.get(name, loader);
+    }
+
+    private static final class Lookup {
+
+        private final AsyncCache<String, CepPayload> fresh;
+        // last good answer per key, kept past the TTL and served only when a reload fails
+        private final Cache<String, CepPayload> stale;
+        private final Counter staleServed;
+
+        private Lookup(String upstream, CepCacheProperties.Upstream config, MeterRegistry meterRegistry) {
+            this.fresh = Caffeine.newBuilder()
+                    .maximumSize(config.maximumSize())
+                    .expireAfter(Expiry.<String, CepPayload>creating((key, body) ->
+                            body.notFound() ? config.negativeTtl() : config.ttl()))
+                    .recordStats()
+                    .buildAsync();
+            this.stale = config.staleTtl().isZero() ? null : Caffeine.newBuilder()
+                    .maximumSize(config.maximumSize())
+                    .expireAfterWrite(config.staleTtl())
+                    .build();
+            this.staleServed = Counter.builder("cep.fallback")
+                    .description("Upstream failures answered with a fallback instead of an error")
+                    .tag("upstream", upstream)
+                    .tag("type", "stale")
+                    .register(meterRegistry);
+
+            CaffeineCacheMetrics.monitor(meterRegistry, fresh, "cep." + upstream, Tags.of("upstream", upstream));
+        }
+
+        private Mono<CepPayload> get(String key, Function<String, Mono<CepPayload>> loader) {
+            // suppressCancel: the future is shared by every caller waiting on this key
+            Mono<CepPayload> lookup = Mono.fromFuture(() -> fresh.get(key, (k, executor) -> load(k, loader).toFuture()), true);
+            if (stale == null) {
+                return lookup;
+            }
+            return lookup.onErrorResume(e -> {
+                CepPayload body = stale.getIfPresent(key);
+                if (body == null) {
+                    return Mono.error(e);
+                }
+                staleServed.increment();
+                return Mono.just(body);
+            });
+        }
+
+        private Mono<CepPayload> load(String key, Function<String, Mono<CepPayload>> loader) {
+            if (stale == null) {
+                return loader.apply(key);
+            }
+            return loader.apply(key).doOnNext(body -> {
+                if (!body.notFound()) {
+                    stale.put(key, body);
+                }
+            });
+        }
+
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.spring_base.fundamentals.service.cep;
+
+import com.spring_base.fundamentals.config.CepBatchProperties;
+import com.spring_base.fundamentals.dto.CepBatchItem;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.regex.Pattern;
+
+@Service
+@Slf4j
+public class CepStreamService {
+
+    private static final int LOGGED_LINE_LENGTH = 64;
+    private static final Pattern CONTROL_CHARACTERS = Pattern.compile("\\p{Cntrl}");
+
+    private final CepBatchService cepBatchService;
+
+    private final ObjectMapper objectMapper;
+
+    private final CepBatchProperties properties;
+
+    private final Counter invalidLines;
+
+    public CepStreamService(
+            CepBatchService cepBatchService,
+            ObjectMapper objectMapper,
+            CepBatchProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.cepBatchService = cepBatchService;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.invalidLines = Counter.builder("cep.stream.invalid_lines")
+                .description("NDJSON lines that were not a CEP and got an error item")
+                .register(meterRegistry);
+    }
+
+    public Flux<CepBatchItem> stream(Flux<String> lines) {
+        // flatMap emits in completion order and only pulls a new line when an in-flight slot frees up,
+        // so a slow consumer throttles both the upstream calls and the request body reads
+        return lines
+                .filter(line -> !line.isBlank())
+                .flatMap(this::lookup, properties.maxInFlight());
+    }
+
+    private Mono<CepBatchItem> lookup(String line) {
+        String cep = parseCep(line);
+        if (cep == null) {
+            // client input: counted, and only logged at DEBUG, cut short and without control characters
+            invalidLines.increment();
+            if (log.isDebugEnabled()) {
+                log.debug("Skipping invalid NDJSON line: {}", loggable(line));
+            }
+            return Mono.just(CepBatchItem.failure(line, "Invalid line, expected {\"cep\": \"...\"} or a JSON string"));
+        }
+        return cepBatchService.fetchOne(cep);
+    }
+
+    private static String loggable(String line) {
+        String head = line.length() > LOGGED_LINE_LENGTH ? line.substring(0, LOGGED_LINE_LENGTH) + "..." : line;
+        return CONTROL_CHARACTERS.matcher(head).replaceAll("?");
+    }
+
+    private String parseCep(String line) {
+        try {
+            JsonNode node = objectMapper.readTree(line);
+            JsonNode cep = node.isObject() ? node.path("cep") : node;
+            return cep.isString() && !cep.stringValue().isBlank() ? cep.stringValue().trim() : null;
+        } catch (JacksonException e) {
+            return null;
+        }
+    }
+
+}
@@ -1,58 +1,80 @@
 package com.spring_base.fundamentals.service.cep;
 
+import com.spring_base.fundamentals.dto.CepPayload;
+import com.spring_base.fundamentals.dto.CepResponse;
 import io.micrometer.context.ContextSnapshotFactory;
 import io.micrometer.core.instrument.MeterRegistry;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
-import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 @Qualifier("v1")
 public class CompletableFutureFetcher implements CepFetcher{
 
-    private final MeterRegistry meterRegistry;
+    private static final ContextSnapshotFactory SNAPSHOT_FACTORY = ContextSnapshotFactory.builder().build();
 
     private final CepApiClient cepApiClient;
 
-    @Override
-    public Map<String, Object> fetch(String cep) {
+    private final Executor executor;
 
-        meterRegistry.counter("cep_requests_total", "version", "v1").increment();
+    private final FetcherMetrics metrics;
 
-        log.info("Fetching data for CEP: {}", cep);
-        long start = System.currentTimeMillis();
+    public CompletableFutureFetcher(
+            MeterRegistry meterRegistry,
+            CepApiClient cepApiClient,
+            @Qualifier("cepV1Executor") Executor executor
+    ) {
+        this.cepApiClient = cepApiClient;
+        this.executor = executor;
+        this.metrics = new FetcherMetrics("v1", meterRegistry);
+    }
 
+    @Override
+    public CepResponse fetch(String cep) {
+        log.debug("Fetching data for CEP: {}", cep);
+        long start = metrics.start();
+        try {
+            return lookup(cep, start);
+        } catch (RuntimeException e) {
+            metrics.recordFailure(start, e);
+            throw e;
+        }
+    }
 
-        var snapshot = ContextSnapshotFactory.builder().build().captureAll();
+    private CepResponse lookup(String cep, long start) {
+        var snapshot = SNAPSHOT_FACTORY.captureAll();
 
-        CompletableFuture<String> futureCep = CompletableFuture.supplyAsync(() -> {
+        CompletableFuture<CepPayload> futureCep = CompletableFuture.supplyAsync(() -> {
             try (var scope = snapshot.setThreadLocals()){
-                return cepApiClient.fetchViaCep(cep);
+                return metrics.upstream("viacep", () -> cepApiClient.fetchViaCep(cep));
             }
-        });
-        CompletableFuture<String> futureNationalize = CompletableFuture.supplyAsync(() -> {
+        }, executor);
+        CompletableFuture<CepPayload> futureNationalize = CompletableFuture.supplyAsync(() -> {
             try (var scope = snapshot.setThreadLocals()){
-                return cepApiClient.fetchNationalize(cep);
+                return metrics.upstream("nationalize", () -> cepApiClient.fetchNationalize(cep));
             }
-        });
+        }, executor);
 
-        CompletableFuture.allOf(futureCep, futureNationalize).join();
+        try {
+            CompletableFuture.allOf(futureCep, futureNationalize).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
 
-        long duration = System.currentTimeMillis() - start;
-        log.info("Parallel query completed in {}ms", duration);
+        long duration = TimeUnit.NANOSECONDS.toMillis(metrics.recordSuccess(start));
+        log.debug("Parallel query completed in {}ms", duration);
 
-        return Map.of(
-                "viaCep", futureCep.join(),
-                "nationalize", futureNationalize.join(),
-                "elapsedMs", duration,
-                "method", "CompletableFuture"
-        );
+        return new CepResponse(futureCep.join(), futureNationalize.join(), duration, "CompletableFuture");
 
     }
 
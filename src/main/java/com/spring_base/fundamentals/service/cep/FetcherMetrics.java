@@ -0,0 +1,170 @@
+package com.spring_base.fundamentals.service.cep;
+
+import com.spring_base.fundamentals.dto.CepPayload;
+import com.spring_base.fundamentals.exception.UpstreamBusyException;
+import com.spring_base.fundamentals.exception.UpstreamUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Metrics for one fetcher version: requests, in-flight lookups, lookup time (cep.fetch), each upstream call inside it
+// (cep.upstream.call) and failed lookups by exception type. Every meter is registered up front, so the hot path never
+// builds tags or looks meters up in the registry; timers publish percentile histograms and use System.nanoTime
+public class FetcherMetrics {
+
+    private final String version;
+    private final MeterRegistry meterRegistry;
+
+    private final Counter requests;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Timer fetchSuccess;
+    private final Timer fetchError;
+    private final Map<String, Map<Outcome, Timer>> upstreamCalls;
+    // exception types are open-ended: registered on first sight, plain map read afterwards
+    private final Map<Class<?>, Counter> errors = new ConcurrentHashMap<>();
+
+    public FetcherMetrics(String version, MeterRegistry meterRegistry) {
+        this.version = version;
+        this.meterRegistry = meterRegistry;
+        this.requests = Counter.builder("cep.requests")
+                .description("CEP lookups received")
+                .tag("version", version)
+                .register(meterRegistry);
+        Gauge.builder("cep.fetch.in_flight", inFlight, AtomicInteger::get)
+                .description("CEP lookups currently waiting on their upstream calls")
+                .tag("version", version)
+                .register(meterRegistry);
+        this.fetchSuccess = fetchTimer("success");
+        this.fetchError = fetchTimer("error");
+        this.upstreamCalls = Map.of(
+                "viacep", upstreamTimers("viacep"),
+                "nationalize", upstreamTimers("nationalize"));
+    }
+
+    // returns the start time to hand back to recordSuccess/recordFailure
+    public long start() {
+        requests.increment();
+        inFlight.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    // returns the elapsed time in nanoseconds, so callers can report it without reading the clock again
+    public long recordSuccess(long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        inFlight.decrementAndGet();
+        fetchSuccess.record(elapsed, TimeUnit.NANOSECONDS);
+        return elapsed;
+    }
+
+    public void recordFailure(long startNanos, Throwable error) {
+        long elapsed = System.nanoTime() - startNanos;
+        inFlight.decrementAndGet();
+        fetchError.record(elapsed, TimeUnit.NANOSECONDS);
+        errors.computeIfAbsent(error.getClass(), this::errorCounter).increment();
+    }
+
+    public void recordCancelled() {
+        inFlight.decrementAndGet();
+    }
+
+    public CepPayload upstream(String upstream, Supplier<CepPayload> call) {
+        Map<Outcome, Timer> timers = upstreamTimersFor(upstream);
+        long start = System.nanoTime();
+        try {
+            CepPayload payload = call.get();
+            record(timers, outcome(payload), start);
+            return payload;
+        } catch (RuntimeException e) {
+            record(timers, outcome(e), start);
+            throw e;
+        }
+    }
+
+    public Mono<CepPayload> upstream(String upstream, Mono<CepPayload> call) {
+        Map<Outcome, Timer> timers = upstreamTimersFor(upstream);
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call
+                    .doOnSuccess(payload -> record(timers, outcome(payload), start))
+                    .doOnError(e -> record(timers, outcome(e), start));
+        });
+    }
+
+    private static void record(Map<Outcome, Timer> timers, Outcome outcome, long startNanos) {
+        timers.get(outcome).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Map<Outcome, Timer> upstreamTimersFor(String upstream) {
+        Map<Outcome, Timer> timers = upstreamCalls.get(upstream);
+        if (timers == null) {
+            throw new IllegalArgumentException("Unknown upstream: " + upstream);
+        }
+        return timers;
+    }
+
+    private Timer fetchTimer(String outcome) {
+        return Timer.builder("cep.fetch")
+                .description("Time to answer a CEP lookup, both upstream calls included")
+                .tag("version", version)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private Map<Outcome, Timer> upstreamTimers(String upstream) {
+        Map<Outcome, Timer> timers = new EnumMap<>(Outcome.class);
+        for (Outcome outcome : Outcome.values()) {
+            timers.put(outcome, Timer.builder("cep.upstream.call")
+                    .description("Time of each upstream call made by a CEP lookup, cache hits included")
+                    .tag("version", version)
+                    .tag("upstream", upstream)
+                    .tag("outcome", outcome.tag)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        return timers;
+    }
+
+    private Counter errorCounter(Class<?> type) {
+        return Counter.builder("cep.fetch.errors")
+                .description("Failed CEP lookups by exception type")
+                .tag("version", version)
+                .tag("exception", type.getSimpleName())
+                .register(meterRegistry);
+    }
+
+    // empty: Nationalize failed and was left out of the response
+    private static Outcome outcome(CepPayload payload) {
+        if (payload == null) {
+            return Outcome.EMPTY;
+        }
+        return payload.notFound() ? Outcome.NOT_FOUND : Outcome.SUCCESS;
+    }
+
+    private static Outcome outcome(Throwable error) {
+        return switch (error) {
+            case UpstreamBusyException e -> Outcome.REJECTED;
+            case RejectedExecutionException e -> Outcome.REJECTED;
+            case UpstreamUnavailableException e -> Outcome.UNAVAILABLE;
+            default -> Outcome.ERROR;
+        };
+    }
+
+    private enum Outcome {
+        SUCCESS, NOT_FOUND, EMPTY, REJECTED, UNAVAILABLE, ERROR;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.spring_base.fundamentals.service.cep;
+
+import com.spring_base.fundamentals.dto.CepPayload;
+import com.spring_base.fundamentals.dto.CepResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@Slf4j
+@Qualifier("v3")
+public class ReactiveFetcher implements CepFetcher{
+
+    private final CepApiClient cepApiClient;
+
+    private final FetcherMetrics metrics;
+
+    public ReactiveFetcher(MeterRegistry meterRegistry, CepApiClient cepApiClient) {
+        this.cepApiClient = cepApiClient;
+        this.metrics = new FetcherMetrics("v3", meterRegistry);
+    }
+
+    @Override
+    public CepResponse fetch(String cep) {
+        return fetchAsync(cep).block();
+    }
+
+    @Override
+    public Mono<CepResponse> fetchAsync(String cep) {
+        return Mono.defer(() -> {
+            log.debug("Fetching data for CEP (Reactive): {}", cep);
+            long start = metrics.start();
+
+            Mono<Optional<CepPayload>> nationalize = metrics.upstream("nationalize", cepApiClient.nationalize(cep))
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty());
+
+            return Mono.zip(metrics.upstream("viacep", cepApiClient.viaCep(cep)), nationalize)
+                    .map(results -> {
+                        long duration = TimeUnit.NANOSECONDS.toMillis(metrics.recordSuccess(start));
+                        log.debug("Parallel query (Reactive) completed in {}ms", duration);
+
+                        return new CepResponse(results.getT1(), results.getT2().orElse(null), duration, "Reactive");
+                    })
+                    .doOnError(e -> metrics.recordFailure(start, e))
+                    // a hedged or abandoned lookup is neither a success nor a failure, it only leaves the in-flight gauge
+                    .doOnCancel(metrics::recordCancelled);
+        });
+    }
+
+}
@@ -0,0 +1,159 @@
+package com.spring_base.fundamentals.service.cep;
+
+import com.spring_base.fundamentals.config.CepHedgingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+@Component
+public class RequestHedger {
+
+    private static final long TOKEN = 1_000;
+    private static final long DELAY_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final CepHedgingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, UpstreamHedge> upstreams = new ConcurrentHashMap<>();
+
+    public RequestHedger(CepHedgingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> Mono<T> hedge(String upstream, Supplier<Mono<T>> request) {
+        if (!properties.enabled()) {
+            return Mono.defer(request);
+        }
+        return upstreams.computeIfAbsent(upstream, UpstreamHedge::new).hedge(request);
+    }
+
+    private final class UpstreamHedge {
+
+        private final Timer latency;
+        private final Counter sent;
+        private final Counter throttled;
+        private final Counter wins;
+
+        // token bucket in thousandths of a request: every primary call deposits maxExtraLoad, every hedge spends one
+        private final AtomicLong tokens;
+        private final long depositPerCall;
+        private final long maxTokens;
+
+        private volatile long delayNanos;
+        private volatile long delayComputedAt;
+
+        private UpstreamHedge(String upstream) {
+            this.latency = Timer.builder("cep.hedge.primary.latency")
+                    .description("Latency of primary upstream calls, failed and hedged-away ones included, used to derive the hedging delay")
+                    .tag("upstream", upstream)
+                    .publishPercentiles(properties.percentile())
+                    .register(meterRegistry);
+            this.sent = hedgeCounter(upstream, "sent");
+            this.throttled = hedgeCounter(upstream, "throttled");
+            this.wins = Counter.builder("cep.hedge.wins")
+                    .description("Hedged calls that answered before the primary call")
+                    .tag("upstream", upstream)
+                    .register(meterRegistry);
+
+            this.depositPerCall = Math.round(properties.maxExtraLoad() * TOKEN);
+            this.maxTokens = properties.burst() * TOKEN;
+            this.tokens = new AtomicLong(maxTokens);
+            this.delayNanos = properties.minDelay().toNanos();
+
+            Gauge.builder("cep.hedge.delay", this, hedge -> hedge.delayNanos / 1e9)
+                    .description("Current delay before a hedged call is sent, in seconds")
+                    .tag("upstream", upstream)
+                    .register(meterRegistry);
+        }
+
+        private <T> Mono<T> hedge(Supplier<Mono<T>> request) {
+            return Mono.defer(() -> {
+                deposit();
+
+                long start = System.nanoTime();
+                AtomicReference<Throwable> primaryError = new AtomicReference<>();
+                Sinks.Empty<Void> primaryDone = Sinks.empty();
+                Mono<T> primary = Mono.defer(request)
+                        .doOnError(primaryError::set)
+                        .doOnTerminate(primaryDone::tryEmitEmpty)
+                        // a primary cancelled because the hedge won is recorded at the time it was given up on (a lower
+                        // bound); recording only successes would leave out exactly the slow tail the delay is meant to track
+                        .doFinally(signal -> latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+
+                Mono<T> backup = Mono.delay(Duration.ofNanos(currentDelay()))
+                        // a primary that ends before the hedge is due is the answer; once sent, the hedge keeps running
+                        .takeUntilOther(primaryDone.asMono())
+                        .flatMap(tick -> {
+                            if (!tryAcquire()) {
+                                throttled.increment();
+                                return Mono.<T>empty();
+                            }
+                            sent.increment();
+                            return Mono.defer(request).doOnNext(value -> wins.increment());
+                        });
+
+                // firstWithValue: a primary error does not win over a hedge still in flight, and a failed hedge does
+                // not hide a primary that may still succeed. When neither answers, the primary's own error is reported
+                return Mono.firstWithValue(primary, backup).onErrorResume(e -> {
+                    Throwable error = primaryError.get();
+                    if (error != null) {
+                        return Mono.error(error);
+                    }
+                    return e instanceof NoSuchElementException ? Mono.empty() : Mono.error(e);
+                });
+            });
+        }
+
+        private long currentDelay() {
+            long now = System.nanoTime();
+            if (now - delayComputedAt > DELAY_REFRESH_NANOS) {
+                delayComputedAt = now;
+                long observed = 0;
+                for (ValueAtPercentile value : latency.takeSnapshot().percentileValues()) {
+                    observed = (long) value.value(TimeUnit.NANOSECONDS);
+                }
+                delayNanos = Math.max(properties.minDelay().toNanos(), observed);
+            }
+            return delayNanos;
+        }
+
+        private void deposit() {
+            tokens.updateAndGet(current -> Math.min(maxTokens, current + depositPerCall));
+        }
+
+        private boolean tryAcquire() {
+            long current;
+            do {
+                current = tokens.get();
+                if (current < TOKEN) {
+                    return false;
+                }
+            } while (!tokens.compareAndSet(current, current - TOKEN));
+            return true;
+        }
+
+        private Counter hedgeCounter(String upstream, String outcome) {
+            return Counter.builder("cep.hedge.requests")
+                    .description("Hedged upstream calls, sent or skipped because the hedging budget was exhausted")
+                    .tag("upstream", upstream)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+
+    }
+
+}
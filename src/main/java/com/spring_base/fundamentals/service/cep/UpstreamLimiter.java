@@ -0,0 +1,127 @@
+package com.spring_base.fundamentals.service.cep;
+
+import com.spring_base.fundamentals.exception.UpstreamBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Caps concurrent HTTP calls to one upstream. Non-blocking: callers wait in a FIFO queue without holding a thread, so
+// it can sit inside the reactive chain around each actual request (retries and hedges included), below the cache
+public class UpstreamLimiter {
+
+    private final String upstream;
+    private final Duration acquireTimeout;
+    private final Counter rejected;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Deque<MonoSink<Permit>> waiters = new ArrayDeque<>();
+    private int available;
+
+    public UpstreamLimiter(String upstream, int permits, Duration acquireTimeout, MeterRegistry meterRegistry) {
+        this.upstream = upstream;
+        this.acquireTimeout = acquireTimeout;
+        this.available = permits;
+        this.rejected = Counter.builder("cep.limiter.rejected")
+                .description("Upstream calls rejected because no permit was available in time")
+                .tag("upstream", upstream)
+                .register(meterRegistry);
+
+        Gauge.builder("cep.limiter.available", this, UpstreamLimiter::availablePermits)
+                .tag("upstream", upstream)
+                .register(meterRegistry);
+    }
+
+    // the permit is held from subscription until the call completes, fails or is cancelled
+    public <T> Mono<T> limit(Supplier<Mono<T>> call) {
+        return Mono.usingWhen(acquire(), permit -> Mono.defer(call), Permit::release, (permit, e) -> permit.release(), Permit::release);
+    }
+
+    public int availablePermits() {
+        lock.lock();
+        try {
+            return available;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Mono<Permit> acquire() {
+        return Mono.<Permit>create(sink -> {
+            boolean granted;
+            lock.lock();
+            try {
+                granted = available > 0;
+                if (granted) {
+                    available--;
+                } else {
+                    waiters.addLast(sink);
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (granted) {
+                sink.success(new Permit());
+            } else {
+                sink.onCancel(() -> withdraw(sink));
+            }
+        }).timeout(acquireTimeout, Mono.error(() -> {
+            rejected.increment();
+            return new UpstreamBusyException(upstream);
+        }));
+    }
+
+    // called outside the lock: handing a permit over subscribes the waiter's call on this thread
+    private void release() {
+        MonoSink<Permit> next;
+        lock.lock();
+        try {
+            next = waiters.pollFirst();
+            if (next == null) {
+                available++;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (next != null) {
+            next.success(new Permit());
+        }
+    }
+
+    // a waiter no longer in the queue was already handed a permit it will never use
+    private void withdraw(MonoSink<Permit> sink) {
+        boolean queued;
+        lock.lock();
+        try {
+            queued = waiters.remove(sink);
+        } finally {
+            lock.unlock();
+        }
+        if (!queued) {
+            release();
+        }
+    }
+
+    private final class Permit {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Mono<Void> release() {
+            return Mono.fromRunnable(() -> {
+                if (released.compareAndSet(false, true)) {
+                    UpstreamLimiter.this.release();
+                }
+            });
+        }
+
+    }
+
+}
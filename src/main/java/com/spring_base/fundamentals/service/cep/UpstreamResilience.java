@@ -0,0 +1,61 @@
+package com.spring_base.fundamentals.service.cep;
+
+import com.spring_base.fundamentals.exception.UpstreamUnavailableException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.retry.Retry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeoutException;
+
+@Slf4j
+public class UpstreamResilience {
+
+    private final String upstream;
+    private final CircuitBreaker circuitBreaker;
+    private final Retry retry;
+    private final Counter omitted;
+
+    public UpstreamResilience(String upstream, CircuitBreaker circuitBreaker, Retry retry, MeterRegistry meterRegistry) {
+        this.upstream = upstream;
+        this.circuitBreaker = circuitBreaker;
+        this.retry = retry;
+        this.omitted = Counter.builder("cep.fallback")
+                .description("Upstream failures answered with a fallback instead of an error")
+                .tag("upstream", upstream)
+                .tag("type", "omitted")
+                .register(meterRegistry);
+    }
+
+    public <T> Mono<T> decorate(Mono<T> call) {
+        // retry wraps the breaker, so an open circuit is not retried and every attempt is recorded
+        return call
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(RetryOperator.of(retry))
+                .onErrorMap(CallNotPermittedException.class, e -> new UpstreamUnavailableException(upstream, e));
+    }
+
+    public <T> Mono<T> omitOnError(Mono<T> call) {
+        return call.onErrorResume(e -> {
+            // once per request during an outage: cep.fallback and the breaker's transition log carry the signal
+            log.debug("Omitting {} from the response: {}", upstream, e.getMessage());
+            omitted.increment();
+            return Mono.empty();
+        });
+    }
+
+    public static boolean isTransient(Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            return response.getStatusCode().is5xxServerError() || response.getStatusCode().value() == 429;
+        }
+        return error instanceof WebClientRequestException || error instanceof TimeoutException;
+    }
+
+}
@@ -1,63 +1,84 @@
 package com.spring_base.fundamentals.service.cep;
 
+import com.spring_base.fundamentals.dto.CepPayload;
+import com.spring_base.fundamentals.dto.CepResponse;
 import io.micrometer.context.ContextSnapshotFactory;
 import io.micrometer.core.instrument.MeterRegistry;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
-import java.util.Map;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 @Qualifier("v2")
 public class VirtualThreadsFetcher implements CepFetcher{
 
-    private final MeterRegistry meterRegistry;
+    private static final ContextSnapshotFactory SNAPSHOT_FACTORY = ContextSnapshotFactory.builder().build();
 
     private final CepApiClient cepApiClient;
 
-    @Override
-    public Map<String, Object> fetch(String cep) {
-        meterRegistry.counter("cep_requests_total", "version", "v2").increment();
+    private final ExecutorService executor;
+
+    private final FetcherMetrics metrics;
 
-        log.info("Fetching data for CEP (Virtual Threads): {}", cep);
-        long start = System.currentTimeMillis();
+    public VirtualThreadsFetcher(
+            MeterRegistry meterRegistry,
+            CepApiClient cepApiClient,
+            @Qualifier("cepV2Executor") ExecutorService executor
+    ) {
+        this.cepApiClient = cepApiClient;
+        this.executor = executor;
+        this.metrics = new FetcherMetrics("v2", meterRegistry);
+    }
 
-        try(ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+    @Override
+    public CepResponse fetch(String cep) {
+        log.debug("Fetching data for CEP (Virtual Threads): {}", cep);
+        long start = metrics.start();
+        try {
+            return lookup(cep, start);
+        } catch (RuntimeException e) {
+            metrics.recordFailure(start, e);
+            throw e;
+        }
+    }
 
-            var snapshot = ContextSnapshotFactory.builder().build().captureAll();
+    private CepResponse lookup(String cep, long start) {
+        var snapshot = SNAPSHOT_FACTORY.captureAll();
 
-            Future<String> futureCep = executor.submit(() -> {
-                try (var scope = snapshot.setThreadLocals()){
-                    return cepApiClient.fetchViaCep(cep);
-                }
-            });
-            Future<String> futureNationalize = executor.submit(() -> {
-                try (var scope = snapshot.setThreadLocals()){
-                    return cepApiClient.fetchNationalize(cep);
-                }
-            });
+        Future<CepPayload> futureCep = executor.submit(() -> {
+            try (var scope = snapshot.setThreadLocals()){
+                return metrics.upstream("viacep", () -> cepApiClient.fetchViaCep(cep));
+            }
+        });
+        Future<CepPayload> futureNationalize = executor.submit(() -> {
+            try (var scope = snapshot.setThreadLocals()){
+                return metrics.upstream("nationalize", () -> cepApiClient.fetchNationalize(cep));
+            }
+        });
 
-            String cepResult = futureCep.get();
-            String nationalizeResult = futureNationalize.get();
+        try {
+            CepPayload cepResult = futureCep.get();
+            CepPayload nationalizeResult = futureNationalize.get();
 
-            long duration = System.currentTimeMillis() - start;
-            log.info("Parallel query (Virtual Threads) completed in {}ms", duration);
+            long duration = TimeUnit.NANOSECONDS.toMillis(metrics.recordSuccess(start));
+            log.debug("Parallel query (Virtual Threads) completed in {}ms", duration);
 
-            return Map.of(
-                    "viaCep", cepResult,
-                    "nationalize", nationalizeResult,
-                    "elapsedMs", duration,
-                    "method", "Virtual Threads"
-            );
+            return new CepResponse(cepResult, nationalizeResult, duration, "Virtual Threads");
 
-        } catch (Exception e) {
+        } catch (ExecutionException e) {
+            futureNationalize.cancel(true);
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Error fetching data", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             throw new RuntimeException("Error fetching data", e);
         }
     }
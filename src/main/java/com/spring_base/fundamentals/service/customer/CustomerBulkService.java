@@ -0,0 +1,125 @@
+package com.spring_base.fundamentals.service.customer;
+
+import com.spring_base.fundamentals.config.CustomerBulkProperties;
+import com.spring_base.fundamentals.dto.CustomerBulkError;
+import com.spring_base.fundamentals.dto.CustomerBulkResponse;
+import com.spring_base.fundamentals.exception.InvalidCustomerBulkException;
+import com.spring_base.fundamentals.model.Customer;
+import com.spring_base.fundamentals.repository.CustomerRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CustomerBulkService {
+
+    private final CustomerRepository customerRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Validator validator;
+
+    private final CustomerBulkProperties properties;
+
+    public CustomerBulkResponse createAll(List<Customer> customers) {
+        if (customers.size() > properties.maxRows()) {
+            throw new InvalidCustomerBulkException(customers.size(), properties.maxRows());
+        }
+
+        log.info("Bulk creating {} customers", customers.size());
+        long start = System.currentTimeMillis();
+
+        List<CustomerBulkError> errors = new ArrayList<>();
+        List<Row> valid = new ArrayList<>(customers.size());
+        for (int i = 0; i < customers.size(); i++) {
+            Customer customer = customers.get(i);
+            if (customer == null) {
+                errors.add(new CustomerBulkError(i, "Row is empty"));
+                continue;
+            }
+            Set<ConstraintViolation<Customer>> violations = validator.validate(customer);
+            if (violations.isEmpty()) {
+                valid.add(new Row(i, customer));
+            } else {
+                errors.add(new CustomerBulkError(i, describe(violations)));
+            }
+        }
+
+        int created = 0;
+        for (int from = 0; from < valid.size(); from += properties.batchSize()) {
+            created += insert(valid.subList(from, Math.min(from + properties.batchSize(), valid.size())), errors);
+        }
+        errors.sort(Comparator.comparingInt(CustomerBulkError::index));
+
+        long duration = System.currentTimeMillis() - start;
+        log.info("Bulk create finished in {}ms: {} created, {} failed", duration, created, errors.size());
+
+        return new CustomerBulkResponse(customers.size(), created, errors.size(), errors, duration);
+    }
+
+    // One transaction and one JDBC batch per chunk; a failing chunk is replayed row by row so only the bad rows are lost
+    private int insert(List<Row> chunk, List<CustomerBulkError> errors) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Customer> saved = customerRepository.saveAll(chunk.stream().map(Row::newEntity).toList());
+                customerRepository.flush();
+                customerRepository.recordCreatedEvents(saved.stream().map(Customer::getId).toList());
+            });
+            return chunk.size();
+        } catch (DataAccessException e) {
+            log.warn("Batch of {} customers failed, retrying row by row: {}", chunk.size(), e.getMostSpecificCause().getMessage());
+        }
+
+        int created = 0;
+        for (Row row : chunk) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    Customer saved = customerRepository.saveAndFlush(row.newEntity());
+                    customerRepository.recordCreatedEvents(List.of(saved.getId()));
+                });
+                created++;
+            } catch (DataAccessException e) {
+                log.debug("Bulk row {} failed: {}", row.index(), e.getMostSpecificCause().getMessage());
+                errors.add(new CustomerBulkError(row.index(), describe(e)));
+            }
+        }
+        return created;
+    }
+
+    // the driver message names tables, constraints and values, so like GlobalExceptionHandler only a fixed text goes back
+    private static String describe(DataAccessException e) {
+        return e instanceof DataIntegrityViolationException
+                ? "Conflicts with existing data (e.g. email already in use)"
+                : "Row could not be stored";
+    }
+
+    private static String describe(Set<ConstraintViolation<Customer>> violations) {
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private record Row(int index, Customer customer) {
+
+        // always insert: ids sent by the client are ignored, and a retried row must not reuse an id from the failed batch
+        Customer newEntity() {
+            return new Customer(null, customer.getName(), customer.getEmail());
+        }
+
+    }
+
+}
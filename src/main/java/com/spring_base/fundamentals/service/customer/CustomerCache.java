@@ -0,0 +1,40 @@
+package com.spring_base.fundamentals.service.customer;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spring_base.fundamentals.config.CustomerCacheProperties;
+import com.spring_base.fundamentals.dto.CustomerView;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+@Component
+public class CustomerCache {
+
+    private final Cache<Long, CustomerView> customers;
+
+    public CustomerCache(CustomerCacheProperties properties, MeterRegistry meterRegistry) {
+        this.customers = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.ttl())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, customers, "customer");
+    }
+
+    // entries are immutable views, so they are shared with callers as-is; misses are not cached,
+    // so a customer created later is visible right away
+    public Optional<CustomerView> get(Long id, Function<Long, Optional<CustomerView>> loader) {
+        return Optional.ofNullable(customers.get(id, key -> loader.apply(key).orElse(null)));
+    }
+
+    // call after the write is committed; a load racing with it finishes first and is dropped
+    public void evict(Long id) {
+        customers.invalidate(id);
+    }
+
+}
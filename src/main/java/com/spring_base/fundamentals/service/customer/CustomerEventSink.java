@@ -0,0 +1,13 @@
+package com.spring_base.fundamentals.service.customer;
+
+import com.spring_base.fundamentals.dto.CustomerEvent;
+
+import java.util.List;
+
+// Broker adapters implement this too. Throwing keeps the whole batch in the outbox for the next round,
+// so delivery is at least once: consumers must tolerate duplicates (event id and payload version)
+public interface CustomerEventSink {
+
+    void publish(List<CustomerEvent> events);
+
+}
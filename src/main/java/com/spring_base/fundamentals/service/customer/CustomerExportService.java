@@ -0,0 +1,61 @@
+package com.spring_base.fundamentals.service.customer;
+
+import com.spring_base.fundamentals.config.CustomerQueryProperties;
+import com.spring_base.fundamentals.dto.CustomerView;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.core.StreamWriteFeature;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CustomerExportService {
+
+    private final EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    private final CustomerQueryProperties properties;
+
+    // Streams every customer as NDJSON over a forward-only cursor; memory stays flat regardless of table size.
+    // The constructor projection skips the persistence context entirely, so rows need no detaching
+    @Transactional(readOnly = true)
+    public long exportTo(OutputStream out) throws IOException {
+        log.info("Exporting customers");
+        long start = System.currentTimeMillis();
+
+        ObjectWriter writer = objectMapper.writerFor(CustomerView.class).without(StreamWriteFeature.AUTO_CLOSE_TARGET);
+        long exported = 0;
+
+        try (Stream<CustomerView> customers = entityManager
+                .createQuery("select new com.spring_base.fundamentals.dto.CustomerView(c.id, c.name, c.email, c.version) from Customer c order by c.id", CustomerView.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, properties.exportFetchSize())
+                .getResultStream()) {
+
+            Iterator<CustomerView> rows = customers.iterator();
+            while (rows.hasNext()) {
+                writer.writeValue(out, rows.next());
+                out.write('\n');
+                exported++;
+            }
+        }
+        out.flush();
+
+        long duration = System.currentTimeMillis() - start;
+        log.info("Exported {} customers in {}ms", exported, duration);
+
+        return exported;
+    }
+
+}
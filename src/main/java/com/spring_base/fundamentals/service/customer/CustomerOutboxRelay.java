@@ -0,0 +1,118 @@
+package com.spring_base.fundamentals.service.customer;
+
+import com.spring_base.fundamentals.config.CustomerOutboxProperties;
+import com.spring_base.fundamentals.dto.CustomerEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+@Component
+@Slf4j
+public class CustomerOutboxRelay {
+
+    // SKIP LOCKED lets several instances relay at once without publishing the same row twice
+    private static final String CLAIM = """
+            SELECT id, customer_id, type, payload, created_at FROM customer_outbox
+            WHERE published_at IS NULL
+            ORDER BY id
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED""";
+
+    private static final String LAG = """
+            SELECT COALESCE(EXTRACT(EPOCH FROM now() - (
+                SELECT created_at FROM customer_outbox WHERE published_at IS NULL ORDER BY id LIMIT 1)), 0)""";
+
+    private static final RowMapper<CustomerEvent> EVENT = (rs, rowNum) -> new CustomerEvent(
+            rs.getLong("id"),
+            rs.getLong("customer_id"),
+            rs.getString("type"),
+            rs.getString("payload"),
+            rs.getTimestamp("created_at").toInstant());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CustomerEventSink sink;
+    private final CustomerOutboxProperties properties;
+    private final Counter published;
+    private final Counter failures;
+
+    private volatile double lagSeconds;
+
+    public CustomerOutboxRelay(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, CustomerEventSink sink,
+                               CustomerOutboxProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.sink = sink;
+        this.properties = properties;
+        this.published = Counter.builder("customer.outbox.published")
+                .description("Customer change events handed to the sink")
+                .register(meterRegistry);
+        this.failures = Counter.builder("customer.outbox.failures")
+                .description("Relay batches that failed and stay in the outbox for the next round")
+                .register(meterRegistry);
+
+        Gauge.builder("customer.outbox.lag", this, relay -> relay.lagSeconds)
+                .description("Age of the oldest unpublished customer change event")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.customer.outbox.poll-interval}")
+    public void relay() {
+        int batch;
+        do {
+            batch = relayBatch();
+        } while (batch == properties.batchSize());
+
+        try {
+            Double lag = jdbcTemplate.queryForObject(LAG, Double.class);
+            lagSeconds = lag == null ? 0 : lag;
+        } catch (DataAccessException e) {
+            log.warn("Could not measure customer outbox lag: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.customer.outbox.purge-interval}")
+    public void purgePublished() {
+        int purged = jdbcTemplate.update(
+                "DELETE FROM customer_outbox WHERE published_at < now() - ? * interval '1 millisecond'",
+                properties.retention().toMillis());
+        if (purged > 0) {
+            log.info("Purged {} published customer events", purged);
+        }
+    }
+
+    // rows stay locked while the sink publishes; they are marked only once it returned, so a crash or a failing
+    // sink leaves them for the next round (at least once)
+    int relayBatch() {
+        try {
+            Integer count = transactionTemplate.execute(status -> {
+                List<CustomerEvent> events = jdbcTemplate.query(CLAIM, EVENT, properties.batchSize());
+                if (events.isEmpty()) {
+                    return 0;
+                }
+                sink.publish(events);
+                Long[] ids = events.stream().map(CustomerEvent::id).toArray(Long[]::new);
+                jdbcTemplate.update("UPDATE customer_outbox SET published_at = now() WHERE id = ANY(?)", (Object) ids);
+                return events.size();
+            });
+            int relayed = count == null ? 0 : count;
+            published.increment(relayed);
+            return relayed;
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("Customer outbox batch failed, retrying on the next poll: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+}
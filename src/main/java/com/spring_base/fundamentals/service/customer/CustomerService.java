@@ -1,146 +1,178 @@
 package com.spring_base.fundamentals.service.customer;
 
+import com.spring_base.fundamentals.config.CustomerQueryProperties;
+import com.spring_base.fundamentals.dto.CustomerPage;
+import com.spring_base.fundamentals.dto.CustomerResponse;
+import com.spring_base.fundamentals.dto.CustomerView;
 import com.spring_base.fundamentals.exception.CustomerNotFoundException;
+import com.spring_base.fundamentals.exception.CustomerVersionConflictException;
+import com.spring_base.fundamentals.exception.InvalidCustomerSearchException;
 import com.spring_base.fundamentals.model.Customer;
 import com.spring_base.fundamentals.repository.CustomerRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
+// every public method is timed by TimedAspect (customer.service, tagged with method and exception)
 @Service
 @Slf4j
 @RequiredArgsConstructor
+@Timed(value = "customer.service", histogram = true)
 public class CustomerService {
 
     private final CustomerRepository customerRepository;
-    private final Map<String, Object> idempotencyStore = new ConcurrentHashMap<>();
+    private final CustomerQueryProperties properties;
+    private final IdempotencyStore idempotencyStore;
+    private final CustomerCache customerCache;
 
-    public Customer createCustomer(Customer customer) {
-        log.info("Creating new Customer: {}", customer.getName());
-        long start = System.currentTimeMillis();
+    @Transactional
+    public CustomerView createCustomer(Customer customer) {
+        log.debug("Creating new Customer: {}", customer.getName());
 
-        Customer saved = customerRepository.save(customer);
+        // always an insert: a client-sent id or version would turn it into a merge of someone else's row
+        customer.setId(null);
+        customer.setVersion(null);
+        Customer saved = customerRepository.saveAndFlush(customer);
+        customerRepository.recordCreatedEvents(List.of(saved.getId()));
 
-        long duration = System.currentTimeMillis() - start;
-        log.info("Customer created with id {} in {}ms", saved.getId(), duration);
+        log.debug("Customer created with id {}", saved.getId());
 
-        return saved;
+        return CustomerView.of(saved);
     }
 
-    public Customer deleteCustomer(Long id) {
-        log.info("Delete Customer by id: {}", id);
-        long start = System.currentTimeMillis();
+    public CustomerView deleteCustomer(Long id) {
+        log.debug("Delete Customer by id: {}", id);
 
-        Customer existingCustomer = customerRepository.findById(id)
+        CustomerView existingCustomer = customerRepository.deleteReturning(id)
                 .orElseThrow(() -> new CustomerNotFoundException(id));
-        customerRepository.deleteById(id);
-
-        long duration = System.currentTimeMillis() - start;
-        log.info("Delete Customer id {} completed in {}ms", id, duration);
+        customerCache.evict(id);
 
         return existingCustomer;
     }
 
-    public List<Customer> getAllCustomers() {
-        return customerRepository.findAll();
+    @Transactional(readOnly = true)
+    public CustomerPage listCustomers(Long after, int limit) {
+        int pageSize = Math.clamp(limit, 1, properties.maxPageSize());
+
+        // keyset pagination: seek past the last id seen instead of OFFSET, one extra row tells if there is a next page
+        List<CustomerView> rows = customerRepository.findByIdGreaterThanOrderByIdAsc(after == null ? 0L : after, Limit.of(pageSize + 1));
+
+        return page(rows, pageSize);
     }
 
-    public Map<String, Object> getCustomer(Long id) {
+    @Transactional(readOnly = true)
+    public CustomerPage searchCustomers(String email, String namePrefix, Long after, int limit) {
+        boolean byEmail = email != null && !email.isBlank();
+        boolean byName = namePrefix != null && !namePrefix.isBlank();
+        if (!byEmail && !byName) {
+            throw new InvalidCustomerSearchException();
+        }
+        int pageSize = Math.clamp(limit, 1, properties.maxPageSize());
+        long cursor = after == null ? 0L : after;
+        String namePattern = byName ? likePrefix(namePrefix.strip()) : null;
+
+        // same keyset paging as listCustomers; the email query hits the unique index, the name one the prefix index
+        List<CustomerView> rows = byEmail
+                ? customerRepository.searchByEmail(email.strip(), namePattern, cursor, pageSize + 1)
+                : customerRepository.searchByNamePrefix(namePattern, cursor, pageSize + 1);
 
-        log.info("Get Customer by id: {}", id);
-        long start = System.currentTimeMillis();
+        return page(rows, pageSize);
+    }
+
+    private static CustomerPage page(List<CustomerView> rows, int pageSize) {
+        if (rows.size() <= pageSize) {
+            return new CustomerPage(rows, null);
+        }
+        List<CustomerView> items = rows.subList(0, pageSize);
+        return new CustomerPage(items, items.getLast().id());
+    }
+
+    // user input is matched literally, only the trailing % is a wildcard
+    private static String likePrefix(String prefix) {
+        return prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
 
-        Customer existingCustomer = customerRepository.findById(id)
+    // no transaction here: a cache hit must not check out a connection; misses load through findViewById
+    public CustomerResponse getCustomer(Long id) {
+
+        log.debug("Get Customer by id: {}", id);
+        long start = System.nanoTime();
+
+        CustomerView existingCustomer = customerCache.get(id, customerRepository::findViewById)
                 .orElseThrow(() -> new CustomerNotFoundException(id));
 
-        long duration = System.currentTimeMillis() - start;
-        log.info("Get Customer id {} completed in {}ms", id, duration);
+        long duration = elapsedMillis(start);
+        log.debug("Get Customer id {} completed in {}ms", id, duration);
 
-        return Map.of(
-                "customer", existingCustomer,
-                "elapsedMs", duration,
-                "method", "getCustomer"
-        );
+        return new CustomerResponse(existingCustomer, duration, "getCustomer");
     }
 
-    public Map<String, Object> replaceCustomer(String idempotencyKey, Long id, Customer newData) {
+    public CustomerResponse replaceCustomer(String idempotencyKey, Long id, Customer newData) {
 
-        log.info("Replacing Customer for id: {}", id);
-        long start = System.currentTimeMillis();
+        log.debug("Replacing Customer for id: {}", id);
+        long start = System.nanoTime();
 
-        Object existingIdempotencyKey = checkIdempotency(idempotencyKey);
+        Optional<CustomerView> previous = idempotencyKey == null
+                ? Optional.empty()
+                : idempotencyStore.reserve(idempotencyKey, CustomerView.class);
 
-        if(existingIdempotencyKey != null) {
+        if(previous.isPresent()) {
 
-            long duration = System.currentTimeMillis() - start;
+            long duration = elapsedMillis(start);
 
-            return Map.of(
-                    "customer", (Customer) existingIdempotencyKey,
-                    "elapsedMs", duration,
-                    "method", "replaceCustomer"
-            );
+            return new CustomerResponse(previous.get(), duration, "replaceCustomer");
         }
 
-        Customer existingCustomer = customerRepository.findById(id)
-                .orElseThrow(() -> new CustomerNotFoundException(id));
-        storeIdempotency(idempotencyKey, newData);
-        newData.setId(id);
-        customerRepository.save(newData);
-
-        long duration = System.currentTimeMillis() - start;
-        log.info("Replace for id {} completed in {}ms", id, duration);
-
-        return Map.of(
-                "customer", newData,
-                "elapsedMs", duration,
-                "method", "replaceCustomer"
-        );
-    }
-
-    public Map<String, Object> updateCustomer(Long id, Customer partialData) {
+        CustomerView replaced;
+        try {
+            replaced = customerRepository.replaceReturning(id, newData.getName(), newData.getEmail(), newData.getVersion())
+                    .orElseThrow(() -> writeFailure(id, newData.getVersion()));
+            customerCache.evict(id);
+            if (idempotencyKey != null) idempotencyStore.complete(idempotencyKey, replaced);
+        } catch (RuntimeException e) {
+            if (idempotencyKey != null) idempotencyStore.release(idempotencyKey);
+            throw e;
+        }
 
-        log.info("Update Customer for id: {}", id);
-        long start = System.currentTimeMillis();
+        long duration = elapsedMillis(start);
+        log.debug("Replace for id {} completed in {}ms", id, duration);
 
-        Customer existing = customerRepository.findById(id)
-                .orElseThrow(() -> new CustomerNotFoundException(id));
-        if(partialData.getName()!= null) existing.setName(partialData.getName());
-        if(partialData.getEmail()!= null) existing.setEmail(partialData.getEmail());
-        customerRepository.save(existing);
-
-        long duration = System.currentTimeMillis() - start;
-        log.info("Update for id {} completed in {}ms", id, duration);
-
-        return Map.of(
-                "customer", existing,
-                "elapsedMs", duration,
-                "method", "updateCustomer"
-        );
+        return new CustomerResponse(replaced, duration, "replaceCustomer");
     }
 
-    private Object checkIdempotency(String key) {
+    public CustomerResponse updateCustomer(Long id, Customer partialData) {
 
-        if(key == null) return null;
+        log.debug("Update Customer for id: {}", id);
+        long start = System.nanoTime();
 
-        Object existing = idempotencyStore.get(key);
+        // null fields keep their current value (COALESCE in the UPDATE)
+        CustomerView updated = customerRepository.patchReturning(id, partialData.getName(), partialData.getEmail(), partialData.getVersion())
+                .orElseThrow(() -> writeFailure(id, partialData.getVersion()));
+        customerCache.evict(id);
 
-        if(existing != null) {
-            log.warn("Idempotency Key duplicated");
-            return existing;
-        } else {
-            return null;
-        }
+        long duration = elapsedMillis(start);
+        log.debug("Update for id {} completed in {}ms", id, duration);
 
+        return new CustomerResponse(updated, duration, "updateCustomer");
     }
 
-    private void storeIdempotency(String key, Object result) {
-        if (key == null) return;
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
 
-        this.idempotencyStore.putIfAbsent(key, result);
+    // only reached when the UPDATE matched no row, so the extra lookup stays off the happy path
+    private RuntimeException writeFailure(Long id, Long expectedVersion) {
+        if (expectedVersion != null && customerRepository.existsById(id)) {
+            return new CustomerVersionConflictException(id, expectedVersion);
+        }
+        return new CustomerNotFoundException(id);
     }
 
 }
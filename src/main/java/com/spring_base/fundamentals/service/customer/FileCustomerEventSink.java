@@ -0,0 +1,49 @@
+package com.spring_base.fundamentals.service.customer;
+
+import com.spring_base.fundamentals.config.CustomerOutboxProperties;
+import com.spring_base.fundamentals.dto.CustomerEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Objects;
+
+// Appends NDJSON, one event per line, and syncs before returning so a published batch survives a crash
+@Component
+@ConditionalOnProperty(prefix = "app.customer.outbox", name = "sink", havingValue = "file")
+public class FileCustomerEventSink implements CustomerEventSink {
+
+    private final ObjectMapper objectMapper;
+    private final Path file;
+
+    public FileCustomerEventSink(ObjectMapper objectMapper, CustomerOutboxProperties properties) {
+        this.objectMapper = objectMapper;
+        this.file = Path.of(Objects.requireNonNull(properties.file(), "app.customer.outbox.file is required for the file sink"));
+    }
+
+    @Override
+    public synchronized void publish(List<CustomerEvent> events) {
+        StringBuilder lines = new StringBuilder();
+        for (CustomerEvent event : events) {
+            lines.append(objectMapper.writeValueAsString(event)).append('\n');
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append customer events to " + file, e);
+        }
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.spring_base.fundamentals.service.customer;
+
+import java.util.Optional;
+
+public interface IdempotencyStore {
+
+    // Claims the key for the calling request. Returns the stored result when the key already completed,
+    // empty when the caller now owns the key, and throws IdempotencyConflictException while another request holds it.
+    public <T> Optional<T> reserve(String key, Class<T> type);
+
+    public void complete(String key, Object result);
+
+    // Gives the key back after a failed request so a retry can run it again
+    public void release(String key);
+
+}
@@ -0,0 +1,65 @@
+package com.spring_base.fundamentals.service.customer;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spring_base.fundamentals.config.IdempotencyProperties;
+import com.spring_base.fundamentals.exception.IdempotencyConflictException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "app.idempotency", name = "store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Cache<String, Entry> entries;
+    private final long lockTimeoutNanos;
+
+    public InMemoryIdempotencyStore(IdempotencyProperties properties) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.ttl())
+                .build();
+        this.lockTimeoutNanos = properties.lockTimeout().toNanos();
+    }
+
+    @Override
+    public <T> Optional<T> reserve(String key, Class<T> type) {
+        Entry claim = new Entry(null, System.nanoTime());
+        Entry entry = entries.asMap().compute(key, (k, existing) ->
+                existing == null || existing.expiredLock(lockTimeoutNanos) ? claim : existing);
+
+        if (entry == claim) {
+            return Optional.empty();
+        }
+        if (entry.result() == null) {
+            throw new IdempotencyConflictException(key);
+        }
+        log.warn("Idempotency Key duplicated");
+        return Optional.of(type.cast(entry.result()));
+    }
+
+    @Override
+    public void complete(String key, Object result) {
+        entries.put(key, new Entry(result, 0));
+    }
+
+    @Override
+    public void release(String key) {
+        entries.asMap().computeIfPresent(key, (k, existing) -> existing.result() == null ? null : existing);
+    }
+
+    // result is null while the owning request is still in flight
+    private record Entry(Object result, long lockedAt) {
+
+        // an owner that never completed or released (crashed request) stops blocking the key after the lock timeout
+        boolean expiredLock(long lockTimeoutNanos) {
+            return result == null && System.nanoTime() - lockedAt > lockTimeoutNanos;
+        }
+
+    }
+
+}
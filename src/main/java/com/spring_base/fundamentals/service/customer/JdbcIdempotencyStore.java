@@ -0,0 +1,77 @@
+package com.spring_base.fundamentals.service.customer;
+
+import com.spring_base.fundamentals.config.IdempotencyProperties;
+import com.spring_base.fundamentals.exception.IdempotencyConflictException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.List;
+import java.util.Optional;
+
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "app.idempotency", name = "store", havingValue = "jdbc")
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    // Expired rows and in-flight rows whose lock ran out can be taken over; anything else means the key is taken
+    private static final String RESERVE = """
+            INSERT INTO idempotency_key (idem_key, status, locked_until, expires_at)
+            VALUES (?, 'IN_FLIGHT', now() + ? * interval '1 millisecond', now() + ? * interval '1 millisecond')
+            ON CONFLICT (idem_key) DO UPDATE
+                SET status = 'IN_FLIGHT', response = NULL,
+                    locked_until = EXCLUDED.locked_until, expires_at = EXCLUDED.expires_at
+                WHERE idempotency_key.expires_at < now()
+                   OR (idempotency_key.status = 'IN_FLIGHT' AND idempotency_key.locked_until < now())
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyProperties properties;
+
+    public JdbcIdempotencyStore(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, IdempotencyProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    @Override
+    public <T> Optional<T> reserve(String key, Class<T> type) {
+        int claimed = jdbcTemplate.update(RESERVE, key, properties.lockTimeout().toMillis(), properties.ttl().toMillis());
+        if (claimed == 1) {
+            return Optional.empty();
+        }
+
+        List<String> responses = jdbcTemplate.queryForList(
+                "SELECT response FROM idempotency_key WHERE idem_key = ? AND status = 'COMPLETED'", String.class, key);
+        if (responses.isEmpty()) {
+            throw new IdempotencyConflictException(key);
+        }
+        log.warn("Idempotency Key duplicated");
+        return Optional.of(objectMapper.readValue(responses.getFirst(), type));
+    }
+
+    @Override
+    public void complete(String key, Object result) {
+        jdbcTemplate.update(
+                "UPDATE idempotency_key SET status = 'COMPLETED', response = ?, locked_until = NULL WHERE idem_key = ?",
+                objectMapper.writeValueAsString(result), key);
+    }
+
+    @Override
+    public void release(String key) {
+        jdbcTemplate.update("DELETE FROM idempotency_key WHERE idem_key = ? AND status = 'IN_FLIGHT'", key);
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval}")
+    public void purgeExpired() {
+        int purged = jdbcTemplate.update("DELETE FROM idempotency_key WHERE expires_at < now()");
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+}
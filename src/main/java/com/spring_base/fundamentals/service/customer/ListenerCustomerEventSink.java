@@ -0,0 +1,24 @@
+package com.spring_base.fundamentals.service.customer;
+
+import com.spring_base.fundamentals.dto.CustomerEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// In-process delivery to @EventListener methods; listeners run on the relay thread and a failing one fails the batch
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.customer.outbox", name = "sink", havingValue = "listener", matchIfMissing = true)
+public class ListenerCustomerEventSink implements CustomerEventSink {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public void publish(List<CustomerEvent> events) {
+        events.forEach(eventPublisher::publishEvent);
+    }
+
+}
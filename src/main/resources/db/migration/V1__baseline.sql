@@ -0,0 +1,27 @@
+-- Schema previously created by ddl-auto=update. IF NOT EXISTS keeps this a no-op on databases that already have it.
+
+CREATE SEQUENCE IF NOT EXISTS customer_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS customer (
+    id      bigint       NOT NULL PRIMARY KEY,
+    name    varchar(255),
+    email   varchar(255),
+    version bigint       NOT NULL DEFAULT 0
+);
+
+ALTER TABLE customer ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
+
+-- rows inserted before the pooled sequence existed (IDENTITY ids) must not collide with the next allocated block
+SELECT setval('customer_seq', GREATEST(MAX(id), (SELECT last_value FROM customer_seq)))
+FROM customer
+HAVING COUNT(*) > 0;
+
+CREATE TABLE IF NOT EXISTS idempotency_key (
+    idem_key     varchar(255)             NOT NULL PRIMARY KEY,
+    status       varchar(16)              NOT NULL,
+    response     text,
+    locked_until timestamp(6) with time zone,
+    expires_at   timestamp(6) with time zone NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_key_expires_at ON idempotency_key (expires_at);
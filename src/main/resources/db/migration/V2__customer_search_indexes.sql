@@ -0,0 +1,8 @@
+-- GET /customer/search. Fails on existing duplicate emails on purpose: they have to be merged by hand first.
+-- CONCURRENTLY keeps writes to customer going while the indexes build; it cannot run inside a transaction, hence
+-- executeInTransaction=false in the .conf next to this file. A failed build leaves an INVALID index that IF NOT EXISTS
+-- would then skip: drop it before re-running.
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS ux_customer_email ON customer (lower(email));
+
+-- text_pattern_ops lets LIKE 'prefix%' use the index regardless of the database collation
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customer_name_prefix ON customer (lower(name) text_pattern_ops);
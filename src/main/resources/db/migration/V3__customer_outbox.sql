@@ -0,0 +1,13 @@
+-- Change events written in the same transaction as the customer row, published by CustomerOutboxRelay
+CREATE TABLE IF NOT EXISTS customer_outbox (
+    id           bigserial                   PRIMARY KEY,
+    customer_id  bigint                      NOT NULL,
+    type         varchar(16)                 NOT NULL,
+    payload      text                        NOT NULL,
+    created_at   timestamp(6) with time zone NOT NULL DEFAULT now(),
+    published_at timestamp(6) with time zone
+);
+
+-- the relay only reads unpublished rows in id order; the purge only reads published ones
+CREATE INDEX IF NOT EXISTS idx_customer_outbox_unpublished ON customer_outbox (id) WHERE published_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_customer_outbox_published_at ON customer_outbox (published_at) WHERE published_at IS NOT NULL;
@@ -0,0 +1,56 @@
+package com.spring_base.fundamentals.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CepExecutorConfigTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private ExecutorService executor;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("V1 executor should start a thread per blocking lookup up to max-pool-size before queueing")
+    void shouldGrowToMaxBeforeQueueing() throws Exception {
+        // ARRANGE
+        executor = new CepExecutorConfig().cepV1Executor(new CepExecutorProperties(8, 100, Duration.ofSeconds(60),
+                CepExecutorProperties.RejectionPolicy.ABORT), new SimpleMeterRegistry());
+        CountDownLatch started = new CountDownLatch(8);
+
+        // ACT
+        for (int i = 0; i < 10; i++) {
+            executor.execute(() -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        // ASSERT
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        ThreadPoolExecutor pool = (ThreadPoolExecutor) executor;
+        assertEquals(8, pool.getPoolSize());
+        assertEquals(2, pool.getQueue().size());
+        assertTrue(pool.allowsCoreThreadTimeOut());
+    }
+
+}
@@ -0,0 +1,116 @@
+package com.spring_base.fundamentals.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class GatedDataSourceTest {
+
+    @Mock
+    private DataSource pool;
+
+    @Mock
+    private Connection connection;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private GatedDataSource gatedDataSource;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        gatedDataSource = new GatedDataSource(pool, "primary", 1, Duration.ofMillis(20), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should reject a caller that gets no permit within the acquire timeout")
+    void shouldRejectWhenNoPermitInTime() throws Exception {
+        // ARRANGE
+        when(pool.getConnection()).thenReturn(connection);
+        gatedDataSource.getConnection();
+
+        // ACT
+        // ASSERT
+        assertThrows(SQLTransientConnectionException.class, () -> gatedDataSource.getConnection());
+        assertEquals(1.0, meterRegistry.get("db.gate.rejected").tag("pool", "primary").counter().count());
+        assertEquals(2, meterRegistry.get("db.gate.wait").tag("pool", "primary").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should hand the permit back when the connection is closed, once")
+    void shouldReleasePermitOnClose() throws Exception {
+        // ARRANGE
+        when(pool.getConnection()).thenReturn(connection);
+        Connection first = gatedDataSource.getConnection();
+
+        // ACT
+        first.close();
+        first.close();
+
+        // ASSERT
+        verify(connection, times(2)).close();
+        assertEquals(1.0, meterRegistry.get("db.gate.available").gauge().value());
+        assertNotNull(gatedDataSource.getConnection());
+    }
+
+    @Test
+    @DisplayName("Should hand the permit back even when closing the connection fails")
+    void shouldReleasePermitWhenCloseFails() throws Exception {
+        // ARRANGE
+        when(pool.getConnection()).thenReturn(connection);
+        doThrow(new SQLException("socket closed")).when(connection).close();
+        Connection first = gatedDataSource.getConnection();
+
+        // ACT
+        assertThrows(SQLException.class, first::close);
+
+        // ASSERT
+        assertEquals(1.0, meterRegistry.get("db.gate.available").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should delegate to and unwrap to the pooled connection")
+    void shouldDelegateToPooledConnection() throws Exception {
+        // ARRANGE
+        when(pool.getConnection()).thenReturn(connection);
+        Connection gated = gatedDataSource.getConnection();
+
+        // ACT
+        gated.commit();
+
+        // ASSERT
+        verify(connection).commit();
+        assertSame(connection, gated.unwrap(Connection.class));
+    }
+
+    @Test
+    @DisplayName("Should hand the permit back when the pool fails to connect")
+    void shouldReleasePermitWhenPoolFails() throws Exception {
+        // ARRANGE
+        when(pool.getConnection()).thenThrow(new SQLException("connection refused"));
+
+        // ACT
+        assertThrows(SQLException.class, () -> gatedDataSource.getConnection());
+
+        // ASSERT
+        assertEquals(1.0, meterRegistry.get("db.gate.available").gauge().value());
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.spring_base.fundamentals.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.AppenderBase;
+import io.micrometer.core.instrument.search.MeterNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MeteredAsyncAppenderTest {
+
+    private final LoggerContext loggerContext = new LoggerContext();
+
+    private final Logger logger = loggerContext.getLogger("test");
+
+    private final CountDownLatch delivering = new CountDownLatch(1);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private MeteredAsyncAppender appender;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        loggerContext.setMDCAdapter(new LogbackMDCAdapter());
+
+        // stands in for a stalled Loki: the worker takes one event and then waits
+        AppenderBase<ILoggingEvent> stalled = new AppenderBase<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                delivering.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        stalled.setContext(loggerContext);
+        stalled.start();
+
+        appender = new MeteredAsyncAppender(meterRegistry);
+        appender.setContext(loggerContext);
+        appender.setName("ASYNC_LOKI");
+        appender.setQueueSize(4);
+        appender.setDiscardingThreshold(2);
+        appender.setNeverBlock(true);
+        appender.addAppender(stalled);
+        appender.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        appender.stop();
+    }
+
+    @Test
+    @DisplayName("Should shed events below WARN past the discarding threshold and drop when full, without blocking")
+    void shouldDiscardAndDropWithoutBlocking() throws Exception {
+        // ARRANGE
+        appender.doAppend(event(Level.INFO));
+        assertTrue(delivering.await(5, TimeUnit.SECONDS));
+
+        // ACT
+        appender.doAppend(event(Level.INFO));
+        appender.doAppend(event(Level.INFO));
+        appender.doAppend(event(Level.INFO));
+        appender.doAppend(event(Level.INFO));
+        appender.doAppend(event(Level.WARN));
+        appender.doAppend(event(Level.ERROR));
+
+        // ASSERT
+        assertEquals(1.0, meterRegistry.get("logging.async.events").tag("appender", "ASYNC_LOKI").tag("result", "discarded").counter().count());
+        assertEquals(1.0, meterRegistry.get("logging.async.events").tag("appender", "ASYNC_LOKI").tag("result", "dropped").counter().count());
+        assertEquals(4.0, meterRegistry.get("logging.async.queue.size").tag("appender", "ASYNC_LOKI").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should remove its queue gauges when stopped")
+    void shouldRemoveGaugesOnStop() {
+        // ACT
+        release.countDown();
+        appender.stop();
+
+        // ASSERT
+        assertThrows(MeterNotFoundException.class, () -> meterRegistry.get("logging.async.queue.size").gauge());
+    }
+
+    private LoggingEvent event(Level level) {
+        return new LoggingEvent(Logger.class.getName(), logger, level, "message", null, null);
+    }
+
+}
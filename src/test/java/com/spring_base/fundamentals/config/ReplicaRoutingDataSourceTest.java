@@ -0,0 +1,118 @@
+package com.spring_base.fundamentals.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private JdbcTemplate replicaJdbc;
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ReplicaLagMonitor lagMonitor;
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lagMonitor = new ReplicaLagMonitor(replicaJdbc, Duration.ofSeconds(1), meterRegistry);
+        routingDataSource = new ReplicaRoutingDataSource(primary, replica, lagMonitor, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    @DisplayName("Should send read-only transactions to a replica within the lag budget")
+    void shouldRouteReadsToReplica() {
+        // ARRANGE
+        when(replicaJdbc.queryForObject(anyString(), eq(Double.class))).thenReturn(120.0);
+        lagMonitor.check();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // ACT
+        Object target = routingDataSource.determineCurrentLookupKey();
+
+        // ASSERT
+        assertEquals(ReplicaRoutingDataSource.Target.REPLICA, target);
+        assertEquals(120.0, meterRegistry.get("db.replica.lag").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should keep writes on the primary")
+    void shouldRouteWritesToPrimary() {
+        // ARRANGE
+        when(replicaJdbc.queryForObject(anyString(), eq(Double.class))).thenReturn(0.0);
+        lagMonitor.check();
+
+        // ACT
+        Object target = routingDataSource.determineCurrentLookupKey();
+
+        // ASSERT
+        assertEquals(ReplicaRoutingDataSource.Target.PRIMARY, target);
+    }
+
+    @Test
+    @DisplayName("Should fall back to the primary when the replica lags too far behind")
+    void shouldFallBackWhenReplicaLags() {
+        // ARRANGE
+        when(replicaJdbc.queryForObject(anyString(), eq(Double.class))).thenReturn(5_000.0);
+        lagMonitor.check();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // ACT
+        Object target = routingDataSource.determineCurrentLookupKey();
+
+        // ASSERT
+        assertEquals(ReplicaRoutingDataSource.Target.PRIMARY, target);
+        assertEquals(1.0, meterRegistry.get("db.routing.reads").tag("target", "primary").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should fall back to the primary when the replica is unreachable")
+    void shouldFallBackWhenReplicaDown() {
+        // ARRANGE
+        when(replicaJdbc.queryForObject(anyString(), eq(Double.class)))
+                .thenReturn(0.0)
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+        lagMonitor.check();
+        lagMonitor.check();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // ACT
+        Object target = routingDataSource.determineCurrentLookupKey();
+
+        // ASSERT
+        assertEquals(ReplicaRoutingDataSource.Target.PRIMARY, target);
+        assertFalse(lagMonitor.usable());
+    }
+
+}
@@ -0,0 +1,104 @@
+package com.spring_base.fundamentals.config;
+
+import com.spring_base.fundamentals.dto.CustomerEvent;
+import com.spring_base.fundamentals.service.customer.CustomerEventSink;
+import com.spring_base.fundamentals.service.customer.CustomerOutboxRelay;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.task.TaskSchedulingAutoConfiguration;
+import org.springframework.boot.test.context.ConfigDataApplicationContextInitializer;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SchedulingTest {
+
+    private static final CustomerEvent EVENT = new CustomerEvent(1L, 10L, "CREATED", "{\"id\":10}", Instant.EPOCH);
+
+    private final JdbcTemplate outboxJdbc = mock(JdbcTemplate.class);
+
+    private final JdbcTemplate replicaJdbc = mock(JdbcTemplate.class);
+
+    private final CountDownLatch draining = new CountDownLatch(1);
+
+    private volatile boolean drained;
+
+    // application.properties supplies the scheduler settings; only the job intervals are shortened
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withInitializer(new ConfigDataApplicationContextInitializer())
+            .withConfiguration(AutoConfigurations.of(TaskSchedulingAutoConfiguration.class))
+            .withPropertyValues(
+                    "app.customer.outbox.poll-interval=10ms",
+                    "app.datasource.replica.lag-check-interval=20ms")
+            .withUserConfiguration(ScheduledJobs.class)
+            .withBean(SchedulingTest.class, () -> this);
+
+    @Test
+    @DisplayName("Should keep checking replica lag while the outbox relay is draining a backlog")
+    void shouldCheckLagWhileRelayDrains() {
+        // ARRANGE
+        // every claim returns a full batch, so the relay keeps its scheduler thread until drained is set
+        when(outboxJdbc.query(anyString(), any(RowMapper.class), eq(2))).thenAnswer(invocation -> {
+            draining.countDown();
+            Thread.sleep(5);
+            return drained ? List.of() : List.of(EVENT, EVENT);
+        });
+        when(replicaJdbc.queryForObject(anyString(), eq(Double.class))).thenReturn(0.0);
+
+        contextRunner.run(context -> {
+            try {
+                // ACT
+                assertTrue(draining.await(5, TimeUnit.SECONDS));
+
+                // ASSERT
+                verify(replicaJdbc, timeout(5_000).atLeast(3)).queryForObject(anyString(), eq(Double.class));
+                assertTrue(context.getBean(ReplicaLagMonitor.class).usable());
+            } finally {
+                drained = true;
+            }
+        });
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableScheduling
+    static class ScheduledJobs {
+
+        @Bean
+        CustomerOutboxRelay customerOutboxRelay(SchedulingTest test) {
+            CustomerOutboxProperties properties = new CustomerOutboxProperties(
+                    CustomerOutboxProperties.Sink.LISTENER, 2, Duration.ofMillis(10), Duration.ofDays(7), Duration.ofHours(1), null);
+            return new CustomerOutboxRelay(test.outboxJdbc, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                    mock(CustomerEventSink.class), properties, new SimpleMeterRegistry());
+        }
+
+        @Bean
+        ReplicaLagMonitor replicaLagMonitor(SchedulingTest test) {
+            return new ReplicaLagMonitor(test.replicaJdbc, Duration.ofSeconds(1), new SimpleMeterRegistry());
+        }
+
+    }
+
+}
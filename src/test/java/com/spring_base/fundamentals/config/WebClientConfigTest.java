@@ -0,0 +1,64 @@
+package com.spring_base.fundamentals.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+public class WebClientConfigTest {
+
+    private final WebClientConfig webClientConfig = new WebClientConfig();
+
+    private ApiProperties apiProperties;
+
+    private ConnectionProvider connectionProvider;
+
+    @BeforeEach
+    void setUp() {
+        apiProperties = new ApiProperties(
+                new ApiProperties.ViaCep("https://viacep.com.br/ws", pool(200)),
+                new ApiProperties.Second("http://localhost:9090", pool(50)),
+                new ApiProperties.Http(Duration.ofSeconds(2), Duration.ofSeconds(5), true),
+                ApiProperties.PayloadMode.TYPED
+        );
+        connectionProvider = webClientConfig.upstreamConnectionProvider(apiProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionProvider.dispose();
+    }
+
+    @Test
+    @DisplayName("Should configure one pool per upstream host and port")
+    void shouldConfigurePoolPerUpstreamHost() {
+        // ACT
+        Map<SocketAddress, Integer> maxConnections = connectionProvider.maxConnectionsPerHost();
+
+        // ASSERT
+        assertEquals(200, maxConnections.get(InetSocketAddress.createUnresolved("viacep.com.br", 443)));
+        assertEquals(50, maxConnections.get(InetSocketAddress.createUnresolved("localhost", 9090)));
+    }
+
+    @Test
+    @DisplayName("Should build WebClient on top of the pooled connection provider")
+    void shouldBuildWebClient() {
+        // ACT + ASSERT
+        assertNotNull(webClientConfig.webClient(connectionProvider, apiProperties));
+    }
+
+    private static ApiProperties.Pool pool(int maxConnections) {
+        return new ApiProperties.Pool(maxConnections, 100, Duration.ofSeconds(2),
+                Duration.ofSeconds(30), Duration.ofMinutes(5), Duration.ofSeconds(30));
+    }
+
+}
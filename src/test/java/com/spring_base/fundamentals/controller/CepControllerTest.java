@@ -1,24 +1,46 @@
 package com.spring_base.fundamentals.controller;
 
+import com.spring_base.fundamentals.dto.CepBatchItem;
+import com.spring_base.fundamentals.dto.CepBatchResponse;
+import com.spring_base.fundamentals.dto.CepResponse;
+import com.spring_base.fundamentals.dto.NationalizeResult;
+import com.spring_base.fundamentals.dto.RawJson;
+import com.spring_base.fundamentals.dto.ViaCepAddress;
+import com.spring_base.fundamentals.service.cep.CepBatchService;
 import com.spring_base.fundamentals.service.cep.CepFetcher;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Mono;
 
-import java.util.Map;
+import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(CepController.class)
 public class CepControllerTest {
 
+    private static final ViaCepAddress ADDRESS = new ViaCepAddress("83402-220", "Rua Fake", "", "", "Centro", "Colombo",
+            "PR", "Paraná", "Sul", "4105805", "", "41", "7535", null);
+
+    private static final NationalizeResult NATIONALIZE = new NationalizeResult(1, "lucas",
+            List.of(new NationalizeResult.Country("BR", 0.4)));
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -30,16 +52,25 @@ public class CepControllerTest {
     @Qualifier("v2")
     private CepFetcher v2Fetcher;
 
+    @MockitoBean
+    @Qualifier("v3")
+    private CepFetcher v3Fetcher;
+
+    @MockitoBean
+    private CepBatchService cepBatchService;
+
     @Test
     @DisplayName("GET v1: should return 200 with CEP data via CompletableFuture")
     void shouldReturn200WithCepDataViaCompletableFuture() throws Exception {
         // ARRANGE
         when(v1Fetcher.fetch("83402220"))
-                .thenReturn(Map.of("viaCep", "{}", "nationalize", "{}", "elapsedMs", 0L, "method", "CompletableFuture"));
+                .thenReturn(new CepResponse(new RawJson("{\"cep\":\"83402-220\"}", false), null, 0L, "CompletableFuture"));
 
         // ACT + ASSERT
         mockMvc.perform(get("/cep/v1/83402220"))
                 .andExpect(status().isOk())
+                .andExpect(jsonPath("$.viaCep.cep").value("83402-220"))
+                .andExpect(jsonPath("$.nationalize").doesNotExist())
                 .andExpect(jsonPath("$.method").value("CompletableFuture"));
     }
 
@@ -48,11 +79,13 @@ public class CepControllerTest {
     void shouldReturn200WithCepDataViaVirtualThreads() throws Exception {
         // ARRANGE
         when(v2Fetcher.fetch("83402220"))
-                .thenReturn(Map.of("viaCep", "{}", "nationalize", "{}", "elapsedMs", 0L, "method", "Virtual Threads"));
+                .thenReturn(new CepResponse(ADDRESS, NATIONALIZE, 0L, "Virtual Threads"));
 
         // ACT + ASSERT
         mockMvc.perform(get("/cep/v2/83402220"))
                 .andExpect(status().isOk())
+                .andExpect(jsonPath("$.viaCep.localidade").value("Colombo"))
+                .andExpect(jsonPath("$.nationalize.country[0].country_id").value("BR"))
                 .andExpect(jsonPath("$.method").value("Virtual Threads"));
     }
 
@@ -80,4 +113,75 @@ public class CepControllerTest {
                 .andExpect(status().isInternalServerError());
     }
 
+    @Test
+    @DisplayName("GET v3: should return 200 with CEP data via Reactive")
+    void shouldReturn200WithCepDataViaReactive() throws Exception {
+        // ARRANGE
+        when(v3Fetcher.fetchAsync("83402220"))
+                .thenReturn(Mono.just(new CepResponse(ADDRESS, NATIONALIZE, 0L, "Reactive")));
+
+        // ACT
+        MvcResult result = mockMvc.perform(get("/cep/v3/83402220"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // ASSERT
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.method").value("Reactive"));
+    }
+
+    @Test
+    @DisplayName("GET v3: should return 500 when service fails via Reactive")
+    void shouldReturn500WhenServiceFailsViaReactive() throws Exception {
+        // ARRANGE
+        when(v3Fetcher.fetchAsync("83402220"))
+                .thenReturn(Mono.error(new RuntimeException()));
+
+        // ACT
+        MvcResult result = mockMvc.perform(get("/cep/v3/83402220"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // ASSERT
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isInternalServerError());
+    }
+
+    @Test
+    @DisplayName("POST batch: should return 200 with per-CEP results")
+    void shouldReturn200WithBatchResults() throws Exception {
+        // ARRANGE
+        CepBatchResponse response = new CepBatchResponse(
+                List.of(CepBatchItem.success("83402220", new CepResponse(ADDRESS, null, 0L, "Reactive")), CepBatchItem.failure("00000000", "API down")),
+                2, 2, 1, 0L);
+        when(cepBatchService.fetchAll(List.of("83402220", "00000000"))).thenReturn(Mono.just(response));
+
+        // ACT
+        MvcResult result = mockMvc.perform(post("/cep/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ceps\": [\"83402220\", \"00000000\"]}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // ASSERT
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].data.method").value("Reactive"))
+                .andExpect(jsonPath("$.results[1].error").value("API down"))
+                .andExpect(jsonPath("$.failed").value(1));
+    }
+
+    @Test
+    @DisplayName("POST batch: should return 400 when CEP list is empty")
+    void shouldReturn400WhenBatchIsEmpty() throws Exception {
+        // ACT + ASSERT
+        mockMvc.perform(post("/cep/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ceps\": []}"))
+                .andExpect(status().isBadRequest());
+
+        verify(cepBatchService, never()).fetchAll(any());
+    }
+
 }
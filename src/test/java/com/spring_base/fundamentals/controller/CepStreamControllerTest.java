@@ -0,0 +1,77 @@
+package com.spring_base.fundamentals.controller;
+
+import com.spring_base.fundamentals.dto.CepBatchItem;
+import com.spring_base.fundamentals.dto.CepResponse;
+import com.spring_base.fundamentals.service.cep.CepStreamService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(CepStreamController.class)
+public class CepStreamControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private CepStreamService cepStreamService;
+
+    @Test
+    @DisplayName("POST stream: should return one NDJSON line per result")
+    void shouldReturnNdjsonLines() throws Exception {
+        // ARRANGE
+        when(cepStreamService.stream(any())).thenReturn(Flux.just(
+                CepBatchItem.success("83402220", new CepResponse(null, null, 0L, "Reactive")),
+                CepBatchItem.failure("00000000", "API down")));
+
+        // ACT
+        MvcResult result = mockMvc.perform(post("/cep/stream")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .content("{\"cep\": \"83402220\"}\n{\"cep\": \"00000000\"}\n"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // ASSERT
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        "{\"cep\":\"83402220\",\"data\":{\"elapsedMs\":0,\"method\":\"Reactive\"}}\n{\"cep\":\"00000000\",\"error\":\"API down\"}\n"));
+    }
+
+    @Test
+    @DisplayName("POST stream: should return Server-Sent Events when requested")
+    void shouldReturnServerSentEvents() throws Exception {
+        // ARRANGE
+        when(cepStreamService.stream(any())).thenReturn(Flux.just(CepBatchItem.failure("00000000", "API down")));
+
+        // ACT
+        MvcResult result = mockMvc.perform(post("/cep/stream")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .content("\"00000000\"\n"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // ASSERT
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string("data:{\"cep\":\"00000000\",\"error\":\"API down\"}\n\n"));
+    }
+
+}
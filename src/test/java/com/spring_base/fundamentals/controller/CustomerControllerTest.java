@@ -1,7 +1,14 @@
 package com.spring_base.fundamentals.controller;
 
+import com.spring_base.fundamentals.dto.CustomerBulkError;
+import com.spring_base.fundamentals.dto.CustomerBulkResponse;
+import com.spring_base.fundamentals.dto.CustomerPage;
+import com.spring_base.fundamentals.dto.CustomerResponse;
+import com.spring_base.fundamentals.dto.CustomerView;
 import com.spring_base.fundamentals.exception.CustomerNotFoundException;
 import com.spring_base.fundamentals.model.Customer;
+import com.spring_base.fundamentals.service.customer.CustomerBulkService;
+import com.spring_base.fundamentals.service.customer.CustomerExportService;
 import com.spring_base.fundamentals.service.customer.CustomerService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -11,12 +18,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
-import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.never;
@@ -32,13 +42,36 @@ class CustomerControllerTest {
     @MockitoBean
     private CustomerService customerService;
 
+    @MockitoBean
+    private CustomerExportService customerExportService;
+
+    @MockitoBean
+    private CustomerBulkService customerBulkService;
+
     // POST tests
 
+    @Test
+    @DisplayName("POST bulk: should return 200 with created count and per-row errors")
+    void shouldReturn200WithBulkSummary() throws Exception {
+        // ARRANGE
+        when(customerBulkService.createAll(anyList()))
+                .thenReturn(new CustomerBulkResponse(2, 1, 1, List.of(new CustomerBulkError(1, "name: must not be blank")), 5L));
+
+        // ACT + ASSERT
+        mockMvc.perform(post("/customer/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"name\": \"Lucas\", \"email\": \"lucas@email.com\"}, {\"name\": \"\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.errors[0].index").value(1))
+                .andExpect(jsonPath("$.errors[0].message").value("name: must not be blank"));
+    }
+
     @Test
     @DisplayName("POST: should return 201 when creating customer successfully")
     void shouldReturn201WhenCreatingCustomer() throws Exception {
         // ARRANGE
-        Customer created = new Customer(1L, "Lucas", "lucas@email.com");
+        CustomerView created = new CustomerView(1L, "Lucas", "lucas@email.com", 0L);
         when(customerService.createCustomer(any(Customer.class))).thenReturn(created);
 
         // ACT + ASSERT
@@ -83,10 +116,10 @@ class CustomerControllerTest {
     @DisplayName("PATCH: should return 200 when update is successful")
     void shouldReturn200WhenPatchSucceeds() throws Exception {
         // ARRANGE
-        Customer updated = new Customer(1L, "Lucas Teste", "lucas@email.com");
+        CustomerView updated = new CustomerView(1L, "Lucas Teste", "lucas@email.com", 0L);
 
         when(customerService.updateCustomer(eq(1L), any(Customer.class)))
-                .thenReturn(Map.of("customer", updated, "elapsedMs", 0L, "method", "updateCustomer"));
+                .thenReturn(new CustomerResponse(updated, 0L, "updateCustomer"));
 
         // ACT + ASSERT
         mockMvc.perform(patch("/customer/1")
@@ -118,10 +151,10 @@ class CustomerControllerTest {
     @DisplayName("PUT: should return 200 when PUT with Idempotency-Key")
     void shouldReturn200WhenPutWithIdempotencyKey() throws Exception {
         // ARRANGE
-        Customer updated = new Customer(1L, "Lucas Teste", "lucas@email.com");
+        CustomerView updated = new CustomerView(1L, "Lucas Teste", "lucas@email.com", 0L);
 
         when(customerService.replaceCustomer(anyString(), eq(1L), any(Customer.class)))
-                .thenReturn(Map.of("customer", updated, "elapsedMs", 0L, "method", "updateCustomer"));
+                .thenReturn(new CustomerResponse(updated, 0L, "updateCustomer"));
 
         // ACT + ASSERT
         mockMvc.perform(put("/customer/1")
@@ -137,10 +170,10 @@ class CustomerControllerTest {
     @DisplayName("PUT: should accept PUT without Idempotency-Key")
     void shouldAcceptPutWithoutIdempotencyKey() throws Exception {
         // ARRANGE
-        Customer updated = new Customer(1L, "Lucas Teste", "lucas@email.com");
+        CustomerView updated = new CustomerView(1L, "Lucas Teste", "lucas@email.com", 0L);
 
         when(customerService.replaceCustomer(any(), eq(1L), any(Customer.class)))
-                .thenReturn(Map.of("customer", updated, "elapsedMs", 0L, "method", "updateCustomer"));
+                .thenReturn(new CustomerResponse(updated, 0L, "updateCustomer"));
 
         // ACT + ASSERT
         mockMvc.perform(put("/customer/1")
@@ -179,10 +212,10 @@ class CustomerControllerTest {
     @DisplayName("GET: should return 200 and customer when id exists")
     void shouldReturn200AndCustomerWhenGetWithExistingId() throws Exception {
         // ARRANGE
-        Customer customer = new Customer(1L, "Lucas Teste", "lucasteste@email.com");
+        CustomerView customer = new CustomerView(1L, "Lucas Teste", "lucasteste@email.com", 0L);
 
         when(customerService.getCustomer(eq(1L)))
-                .thenReturn(Map.of("customer", customer, "elapsedMs", 0L, "method", "getCustomer"));
+                .thenReturn(new CustomerResponse(customer, 0L, "getCustomer"));
 
         // ACT + ASSERT
         mockMvc.perform(get("/customer/1"))
@@ -206,33 +239,70 @@ class CustomerControllerTest {
     }
 
     @Test
-    @DisplayName("GET: should return 200 with customer list")
+    @DisplayName("GET: should return 200 with a page of customers")
     void shouldReturn200WithCustomerList() throws Exception {
         // ARRANGE
-        List<Customer> customers = List.of(
-                new Customer(1L, "Lucas", "lucas@email.com"),
-                new Customer(2L, "Maria", "maria@email.com")
+        List<CustomerView> customers = List.of(
+                new CustomerView(1L, "Lucas", "lucas@email.com", 0L),
+                new CustomerView(2L, "Maria", "maria@email.com", 0L)
         );
 
-        when(customerService.getAllCustomers()).thenReturn(customers);
+        when(customerService.listCustomers(null, 50)).thenReturn(new CustomerPage(customers, 2L));
 
         // ACT + ASSERT
         mockMvc.perform(get("/customer"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(2))
-                .andExpect(jsonPath("$[0].name").value("Lucas"))
-                .andExpect(jsonPath("$[1].name").value("Maria"));
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].name").value("Lucas"))
+                .andExpect(jsonPath("$.items[1].name").value("Maria"))
+                .andExpect(jsonPath("$.nextAfter").value(2));
 
-        verify(customerService).getAllCustomers();
+        verify(customerService).listCustomers(null, 50);
 
     }
 
+    @Test
+    @DisplayName("GET: should pass the keyset cursor and limit to the service")
+    void shouldPassCursorAndLimit() throws Exception {
+        // ARRANGE
+        when(customerService.listCustomers(2L, 10)).thenReturn(new CustomerPage(List.of(), null));
+
+        // ACT + ASSERT
+        mockMvc.perform(get("/customer").param("after", "2").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(0));
+
+        verify(customerService).listCustomers(2L, 10);
+    }
+
+    @Test
+    @DisplayName("GET export: should stream customers as NDJSON")
+    void shouldStreamCustomersAsNdjson() throws Exception {
+        // ARRANGE
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        }).when(customerExportService).exportTo(any());
+
+        // ACT
+        MvcResult result = mockMvc.perform(get("/customer/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // ASSERT
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+    }
+
     @Test
     @DisplayName("DELETE: should return 200 when delete is successful")
     void shouldReturn200WhenDeleteSucceeds() throws Exception {
 
         // ARRANGE
-        Customer customer = new Customer(1L, "Lucas Teste", "lucasteste@email.com");
+        CustomerView customer = new CustomerView(1L, "Lucas Teste", "lucasteste@email.com", 0L);
 
         when(customerService.deleteCustomer(eq(1L)))
                 .thenReturn(customer);
@@ -0,0 +1,56 @@
+package com.spring_base.fundamentals.dto;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CepPayloadTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @Test
+    @DisplayName("ViaCepAddress: should flag not-found answers whether erro is a string or a boolean")
+    void shouldDetectViaCepNotFound() {
+        // ACT
+        ViaCepAddress textual = jsonMapper.readValue("{\"erro\": \"true\"}", ViaCepAddress.class);
+        ViaCepAddress bool = jsonMapper.readValue("{\"erro\": true}", ViaCepAddress.class);
+        ViaCepAddress found = jsonMapper.readValue("{\"cep\": \"83402-220\", \"localidade\": \"Colombo\", \"extra\": 1}", ViaCepAddress.class);
+
+        // ASSERT
+        assertTrue(textual.notFound());
+        assertTrue(bool.notFound());
+        assertFalse(found.notFound());
+        assertEquals("Colombo", found.localidade());
+    }
+
+    @Test
+    @DisplayName("NationalizeResult: should decode countries and flag empty answers")
+    void shouldDecodeNationalize() {
+        // ACT
+        NationalizeResult result = jsonMapper.readValue(
+                "{\"count\": 3, \"name\": \"lucas\", \"country\": [{\"country_id\": \"BR\", \"probability\": 0.4}]}",
+                NationalizeResult.class);
+        NationalizeResult empty = jsonMapper.readValue("{\"count\": 0, \"name\": \"zzz\", \"country\": []}", NationalizeResult.class);
+
+        // ASSERT
+        assertEquals("BR", result.country().get(0).countryId());
+        assertFalse(result.notFound());
+        assertTrue(empty.notFound());
+    }
+
+    @Test
+    @DisplayName("CepResponse: should embed raw upstream JSON verbatim and omit a missing nationalize")
+    void shouldEmbedRawJsonVerbatim() {
+        // ARRANGE
+        CepResponse response = new CepResponse(new RawJson("{\"cep\":\"83402-220\"}", false), null, 12L, "Reactive");
+
+        // ACT
+        String json = jsonMapper.writeValueAsString(response);
+
+        // ASSERT
+        assertEquals("{\"viaCep\":{\"cep\":\"83402-220\"},\"elapsedMs\":12,\"method\":\"Reactive\"}", json);
+    }
+
+}
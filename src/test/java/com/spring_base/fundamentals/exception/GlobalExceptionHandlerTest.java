@@ -3,11 +3,15 @@ package com.spring_base.fundamentals.exception;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.transaction.CannotCreateTransactionException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 public class GlobalExceptionHandlerTest {
 
@@ -47,4 +51,73 @@ public class GlobalExceptionHandlerTest {
         assertEquals(HttpStatus.NOT_FOUND, response.get("status"));
     }
 
+    @Test
+    @DisplayName("Should map rejected executions to SERVICE_UNAVAILABLE")
+    void shouldMapRejectedExecutionToServiceUnavailable() {
+        //ARRANGE
+        RejectedExecutionException exception = new RejectedExecutionException("queue full");
+
+        // ACT
+        Map<String, Object> response = globalExceptionHandler.handleRejectedExecution(exception);
+
+        // ASSERT
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.get("status"));
+        assertEquals("Service Unavailable", response.get("error"));
+    }
+
+    @Test
+    @DisplayName("Should map stale customer versions to CONFLICT")
+    void shouldMapCustomerVersionConflictToConflict() {
+        //ARRANGE
+        CustomerVersionConflictException exception = new CustomerVersionConflictException(1L, 3L);
+
+        // ACT
+        Map<String, Object> response = globalExceptionHandler.handleCustomerVersionConflict(exception);
+
+        // ASSERT
+        assertEquals(HttpStatus.CONFLICT, response.get("status"));
+        assertEquals("Customer 1 was modified concurrently, expected version 3", response.get("message"));
+    }
+
+    @Test
+    @DisplayName("Should map a missing database connection to SERVICE_UNAVAILABLE")
+    void shouldMapDatabaseUnavailableToServiceUnavailable() {
+        //ARRANGE
+        CannotCreateTransactionException exception = new CannotCreateTransactionException("Could not open JPA EntityManager for transaction");
+
+        // ACT
+        Map<String, Object> response = globalExceptionHandler.handleDatabaseUnavailable(exception);
+
+        // ASSERT
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.get("status"));
+    }
+
+    @Test
+    @DisplayName("Should map constraint violations to CONFLICT without the driver message")
+    void shouldMapDataIntegrityViolationToConflict() {
+        //ARRANGE
+        DataIntegrityViolationException exception = new DataIntegrityViolationException("duplicate key value violates unique constraint \"ux_customer_email\"");
+
+        // ACT
+        Map<String, Object> response = globalExceptionHandler.handleDataIntegrityViolation(exception);
+
+        // ASSERT
+        assertEquals(HttpStatus.CONFLICT, response.get("status"));
+        assertFalse(response.get("message").toString().contains("ux_customer_email"));
+    }
+
+    @Test
+    @DisplayName("Should map in-flight idempotency keys to CONFLICT")
+    void shouldMapIdempotencyConflictToConflict() {
+        //ARRANGE
+        IdempotencyConflictException exception = new IdempotencyConflictException("key-1");
+
+        // ACT
+        Map<String, Object> response = globalExceptionHandler.handleIdempotencyConflict(exception);
+
+        // ASSERT
+        assertEquals(HttpStatus.CONFLICT, response.get("status"));
+        assertEquals("A request with Idempotency-Key key-1 is already in progress", response.get("message"));
+    }
+
 }
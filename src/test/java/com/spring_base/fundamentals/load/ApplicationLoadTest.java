@@ -0,0 +1,134 @@
+package com.spring_base.fundamentals.load;
+
+import com.spring_base.fundamentals.TestcontainersConfiguration;
+import com.spring_base.fundamentals.support.StubUpstream;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Offline load run: the app against StubUpstream and a PostgreSQL container, one open-model scenario at a time.
+// Tagged "load" so plain `mvn test` skips it; run with ./mvnw -Pload test (see README for the -Dload.* knobs)
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.api.http.http2=false",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.spring_base.fundamentals=WARN",
+        "logging.level.org.springframework.web=WARN"
+})
+@Import(TestcontainersConfiguration.class)
+public class ApplicationLoadTest {
+
+    private static final LoadSettings SETTINGS = LoadSettings.fromSystemProperties();
+    private static final int SEEDED_CUSTOMERS = 1_000;
+
+    private static StubUpstream upstream;
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void upstreams(DynamicPropertyRegistry registry) throws IOException {
+        upstream = new StubUpstream(StubUpstream.Latency.parse(SETTINGS.upstreamLatency()));
+        registry.add("app.api.viacep.url", upstream::viaCepUrl);
+        registry.add("app.api.second.url", upstream::nationalizeUrl);
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        upstream.close();
+    }
+
+    @Test
+    @DisplayName("LOAD: every scenario should hold the target rate within the p99 and error-rate SLOs")
+    void shouldMeetSlosAtTargetRate() throws Exception {
+        // ARRANGE
+        List<Long> ids = seedCustomers();
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        List<Scenario> scenarios = List.of(
+                new Scenario("cep-v1", n -> get("/cep/v1/" + cep(n))),
+                new Scenario("cep-v2", n -> get("/cep/v2/" + cep(n))),
+                new Scenario("customer-get", n -> get("/customer/" + ids.get((int) (n % ids.size())))),
+                new Scenario("customer-list", n -> get("/customer?limit=50&after=" + ids.get((int) (n % ids.size())))),
+                new Scenario("customer-create", n -> post("/customer",
+                        "{\"name\":\"Load " + n + "\",\"email\":\"load-" + run + "-" + n + "@example.com\"}"))
+        );
+
+        // ACT
+        List<ScenarioResult> results = new ArrayList<>();
+        try (OpenLoadGenerator generator = new OpenLoadGenerator(Duration.ofSeconds(10))) {
+            for (Scenario scenario : scenarios) {
+                results.add(generator.run(scenario, SETTINGS));
+            }
+        }
+        Path report = LoadReport.write(SETTINGS, results);
+
+        // ASSERT
+        List<String> breaches = results.stream()
+                .filter(result -> !result.withinSlo())
+                .map(result -> "%s: p99 %.1fms, error rate %.2f%%".formatted(result.scenario(), result.p99Ms(), result.errorRate() * 100))
+                .toList();
+        assertTrue(breaches.isEmpty(), "SLO breached " + breaches + ", see " + report.toAbsolutePath());
+    }
+
+    // distinct CEPs for most requests, with a repeating tail so the lookup cache also sees some hits
+    private static String cep(long n) {
+        return "%08d".formatted(n % 4 == 0 ? 80_000_000 + n % 100 : 10_000_000 + n);
+    }
+
+    private List<Long> seedCustomers() throws IOException, InterruptedException {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < SEEDED_CUSTOMERS; i++) {
+            body.append(i == 0 ? "" : ",").append("{\"name\":\"Seed ").append(i).append("\",\"email\":\"seed-").append(i).append("@example.com\"}");
+        }
+        JsonMapper mapper = JsonMapper.builder().build();
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            client.send(post("/customer/bulk", body.append("]").toString()), HttpResponse.BodyHandlers.discarding());
+
+            List<Long> ids = new ArrayList<>();
+            String after = "";
+            do {
+                JsonNode page = mapper.readTree(client.send(get("/customer?limit=500" + after), HttpResponse.BodyHandlers.ofString()).body());
+                page.get("items").forEach(item -> ids.add(item.get("id").asLong()));
+                after = page.get("nextAfter").isNull() ? null : "&after=" + page.get("nextAfter").asLong();
+            } while (after != null);
+            return ids;
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET().build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.spring_base.fundamentals.load;
+
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+
+// report.json is meant to be diffed between commits; report.html is the same data for a quick look
+public final class LoadReport {
+
+    private LoadReport() {
+    }
+
+    public record Run(Instant finishedAt, LoadSettings settings, List<ScenarioResult> scenarios) {}
+
+    public static Path write(LoadSettings settings, List<ScenarioResult> scenarios) throws IOException {
+        Path dir = Files.createDirectories(settings.reportDir());
+        Run run = new Run(Instant.now(), settings, scenarios);
+
+        JsonMapper.builder().enable(SerializationFeature.INDENT_OUTPUT).build()
+                .writeValue(dir.resolve("report.json").toFile(), run);
+        Files.writeString(dir.resolve("report.html"), html(run));
+        return dir;
+    }
+
+    private static String html(Run run) {
+        StringBuilder rows = new StringBuilder();
+        for (ScenarioResult r : run.scenarios()) {
+            rows.append(String.format(Locale.ROOT,
+                    "<tr class=\"%s\"><td>%s</td><td>%d</td><td>%.1f</td><td>%d</td><td>%d</td><td>%.2f%%</td>"
+                            + "<td>%.1f</td><td>%.1f</td><td>%.1f</td><td>%.1f</td><td>%.1f</td><td>%s</td></tr>%n",
+                    r.withinSlo() ? "pass" : "fail", r.scenario(), r.targetRps(), r.achievedRps(), r.requests(), r.errors(),
+                    r.errorRate() * 100, r.p50Ms(), r.p90Ms(), r.p99Ms(), r.p999Ms(), r.maxMs(), r.withinSlo() ? "PASS" : "FAIL"));
+        }
+        LoadSettings s = run.settings();
+        return """
+                <!DOCTYPE html>
+                <html><head><meta charset="utf-8"><title>Load test %s</title>
+                <style>
+                body { font-family: sans-serif; } table { border-collapse: collapse; }
+                th, td { border: 1px solid #ccc; padding: 4px 8px; text-align: right; }
+                td:first-child { text-align: left; } .pass { background: #e6ffe6; } .fail { background: #ffe6e6; }
+                </style></head><body>
+                <h1>Load test %s</h1>
+                <p>%d rps per scenario for %s after %s warmup, upstream latency %s.
+                SLO: p99 &le; %d ms, error rate &le; %.2f%%. Latencies in ms, measured from each request's scheduled start.</p>
+                <table>
+                <tr><th>Scenario</th><th>Target rps</th><th>Achieved rps</th><th>Requests</th><th>Errors</th><th>Error rate</th>
+                <th>p50</th><th>p90</th><th>p99</th><th>p99.9</th><th>max</th><th>SLO</th></tr>
+                %s</table>
+                </body></html>
+                """.formatted(run.finishedAt(), run.finishedAt(), s.rps(), s.duration(), s.warmup(), s.upstreamLatency(),
+                s.sloP99().toMillis(), s.sloErrorRate() * 100, rows);
+    }
+
+}
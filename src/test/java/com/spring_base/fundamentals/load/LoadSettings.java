@@ -0,0 +1,34 @@
+package com.spring_base.fundamentals.load;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+// Read from -Dload.* so a run can be reshaped from the command line, e.g. -Dload.rps=500 -Dload.duration=2m
+public record LoadSettings(
+        int rps,
+        Duration warmup,
+        Duration duration,
+        Duration sloP99,
+        double sloErrorRate,
+        String upstreamLatency,
+        Path reportDir
+) {
+
+    public static LoadSettings fromSystemProperties() {
+        return new LoadSettings(
+                Integer.getInteger("load.rps", 100),
+                duration("load.warmup", "5s"),
+                duration("load.duration", "30s"),
+                duration("load.slo.p99", "500ms"),
+                Double.parseDouble(System.getProperty("load.slo.error-rate", "0.01")),
+                System.getProperty("load.upstream-latency", "lognormal:20:200"),
+                Path.of(System.getProperty("load.report-dir", "target/load-report")));
+    }
+
+    private static Duration duration(String property, String defaultValue) {
+        return DurationStyle.detectAndParse(System.getProperty(property, defaultValue));
+    }
+
+}
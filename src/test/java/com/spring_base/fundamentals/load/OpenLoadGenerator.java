@@ -0,0 +1,92 @@
+package com.spring_base.fundamentals.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Open model: requests are sent on a fixed schedule whether or not earlier ones have answered, like real
+// clients do. A closed loop would slow down with the server and hide the queueing it is meant to expose
+public class OpenLoadGenerator implements AutoCloseable {
+
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    private final HttpClient client;
+    private final Duration requestTimeout;
+
+    public OpenLoadGenerator(Duration requestTimeout) {
+        this.requestTimeout = requestTimeout;
+        this.client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public ScenarioResult run(Scenario scenario, LoadSettings settings) throws InterruptedException {
+        AtomicLong sequence = new AtomicLong();
+        drive(scenario, settings.rps(), settings.warmup(), sequence, new Recorder(MAX_LATENCY_NANOS, 3), new AtomicLong());
+
+        Recorder recorder = new Recorder(MAX_LATENCY_NANOS, 3);
+        AtomicLong errors = new AtomicLong();
+        long elapsedNanos = drive(scenario, settings.rps(), settings.duration(), sequence, recorder, errors);
+
+        Histogram latencies = recorder.getIntervalHistogram();
+        return ScenarioResult.of(scenario.name(), settings, latencies, errors.get(), elapsedNanos);
+    }
+
+    private long drive(Scenario scenario, int rps, Duration duration, AtomicLong sequence, Recorder recorder, AtomicLong errors)
+            throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rps;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        Phaser inFlight = new Phaser(1);
+
+        for (long due = start; due < end; due += intervalNanos) {
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            long intended = due;
+            inFlight.register();
+            CompletableFuture<HttpResponse<Void>> call;
+            try {
+                call = client.sendAsync(scenario.request().apply(sequence.getAndIncrement()), HttpResponse.BodyHandlers.discarding());
+            } catch (RuntimeException e) {
+                call = CompletableFuture.failedFuture(e);
+            }
+            call.orTimeout(requestTimeout.toMillis(), TimeUnit.MILLISECONDS).whenComplete((response, error) -> {
+                // coordinated omission: latency counts from when the request was due, so a stalled sender still shows up
+                recorder.recordValue(Math.min(System.nanoTime() - intended, MAX_LATENCY_NANOS));
+                if (error != null || response.statusCode() >= 400) {
+                    errors.incrementAndGet();
+                }
+                inFlight.arriveAndDeregister();
+            });
+        }
+        // achieved rate is measured over the sending window: below target means the generator could not keep up
+        long sendingNanos = System.nanoTime() - start;
+
+        try {
+            inFlight.awaitAdvanceInterruptibly(inFlight.arrive(), requestTimeout.toMillis() * 2, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // every call has its own timeout, so this only happens if the client itself is stuck
+            throw new IllegalStateException("Requests still in flight after " + requestTimeout.multipliedBy(2), e);
+        }
+        return sendingNanos;
+    }
+
+    @Override
+    public void close() {
+        client.close();
+    }
+
+}
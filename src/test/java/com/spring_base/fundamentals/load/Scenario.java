@@ -0,0 +1,7 @@
+package com.spring_base.fundamentals.load;
+
+import java.net.http.HttpRequest;
+import java.util.function.LongFunction;
+
+// request builds the n-th request of the run, so each one can target a different CEP or customer
+public record Scenario(String name, LongFunction<HttpRequest> request) {}
@@ -0,0 +1,46 @@
+package com.spring_base.fundamentals.load;
+
+import org.HdrHistogram.Histogram;
+
+// latencies in milliseconds, measured from when each request was due, not from when it was actually sent
+public record ScenarioResult(
+        String scenario,
+        int targetRps,
+        double achievedRps,
+        long requests,
+        long errors,
+        double errorRate,
+        double p50Ms,
+        double p90Ms,
+        double p99Ms,
+        double p999Ms,
+        double maxMs,
+        boolean withinSlo
+) {
+
+    private static final double NANOS_PER_MS = 1_000_000.0;
+
+    static ScenarioResult of(String scenario, LoadSettings settings, Histogram latencies, long errors, long elapsedNanos) {
+        long requests = latencies.getTotalCount();
+        double errorRate = requests == 0 ? 1.0 : (double) errors / requests;
+        double p99Ms = latencies.getValueAtPercentile(99) / NANOS_PER_MS;
+        boolean withinSlo = requests > 0
+                && errorRate <= settings.sloErrorRate()
+                && p99Ms <= settings.sloP99().toNanos() / NANOS_PER_MS;
+
+        return new ScenarioResult(
+                scenario,
+                settings.rps(),
+                requests * 1e9 / elapsedNanos,
+                requests,
+                errors,
+                errorRate,
+                latencies.getValueAtPercentile(50) / NANOS_PER_MS,
+                latencies.getValueAtPercentile(90) / NANOS_PER_MS,
+                p99Ms,
+                latencies.getValueAtPercentile(99.9) / NANOS_PER_MS,
+                latencies.getMaxValue() / NANOS_PER_MS,
+                withinSlo);
+    }
+
+}
@@ -0,0 +1,335 @@
+package com.spring_base.fundamentals.repository;
+
+import com.spring_base.fundamentals.TestcontainersConfiguration;
+import com.spring_base.fundamentals.dto.CustomerPage;
+import com.spring_base.fundamentals.dto.CustomerView;
+import com.spring_base.fundamentals.exception.IdempotencyConflictException;
+import com.spring_base.fundamentals.model.Customer;
+import com.spring_base.fundamentals.service.customer.CustomerOutboxRelay;
+import com.spring_base.fundamentals.service.customer.CustomerService;
+import com.spring_base.fundamentals.service.customer.IdempotencyStore;
+import com.spring_base.fundamentals.service.customer.JdbcIdempotencyStore;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The native SQL against a real PostgreSQL (needs Docker): RETURNING writes and their outbox CTEs, search patterns
+// and indexes, the relay claim, the idempotency reservation and the Flyway sequence fix-up.
+// Polling is pushed out so the relay only runs when a test calls it
+@SpringBootTest(properties = {
+        "app.idempotency.store=jdbc",
+        "app.customer.outbox.poll-interval=1h",
+        "spring.jpa.show-sql=false"
+})
+@Import(TestcontainersConfiguration.class)
+public class CustomerRepositoryPostgresTest {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerOutboxRelay relay;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM customer_outbox");
+        jdbcTemplate.update("DELETE FROM customer");
+        jdbcTemplate.update("DELETE FROM idempotency_key");
+    }
+
+    @Test
+    @DisplayName("Create should record a CREATED event with the inserted row")
+    void shouldRecordCreatedEvent() {
+        // ACT
+        CustomerView created = customerService.createCustomer(new Customer(null, "Ana", "ana@example.com"));
+
+        // ASSERT
+        assertEquals(new CustomerView(created.id(), "Ana", "ana@example.com", 0L), created);
+        List<OutboxRow> outbox = outbox();
+        assertEquals(1, outbox.size());
+        assertEquals(created.id(), outbox.getFirst().customerId());
+        assertEquals("CREATED", outbox.getFirst().type());
+        assertEquals("ana@example.com", outbox.getFirst().payload().get("email").asString());
+    }
+
+    @Test
+    @DisplayName("ReplaceReturning should return the new row and record an UPDATED event in the same statement")
+    void shouldReplaceAndRecordEvent() {
+        // ARRANGE
+        Long id = seed("Ana", "ana@example.com");
+
+        // ACT
+        Optional<CustomerView> replaced = customerRepository.replaceReturning(id, "Ana Maria", "ana.maria@example.com", 0L);
+
+        // ASSERT
+        assertEquals(Optional.of(new CustomerView(id, "Ana Maria", "ana.maria@example.com", 1L)), replaced);
+        assertEquals(Optional.of(new CustomerView(id, "Ana Maria", "ana.maria@example.com", 1L)), customerRepository.findViewById(id));
+        List<OutboxRow> outbox = outbox();
+        assertEquals(1, outbox.size());
+        assertEquals(id, outbox.getFirst().customerId());
+        assertEquals("UPDATED", outbox.getFirst().type());
+        assertEquals("Ana Maria", outbox.getFirst().payload().get("name").asString());
+        assertEquals(1L, outbox.getFirst().payload().get("version").asLong());
+    }
+
+    @Test
+    @DisplayName("ReplaceReturning should skip the optimistic check for a null version and write nothing for a stale one")
+    void shouldCheckVersionOnlyWhenGiven() {
+        // ARRANGE
+        Long id = seed("Ana", "ana@example.com");
+
+        // ACT
+        Optional<CustomerView> unchecked = customerRepository.replaceReturning(id, "Ana", "ana@example.com", null);
+        Optional<CustomerView> stale = customerRepository.replaceReturning(id, "Bia", "bia@example.com", 0L);
+        Optional<CustomerView> missing = customerRepository.replaceReturning(id + 1000, "Bia", "bia@example.com", null);
+
+        // ASSERT
+        assertEquals(1L, unchecked.orElseThrow().version());
+        assertTrue(stale.isEmpty());
+        assertTrue(missing.isEmpty());
+        assertEquals("Ana", customerRepository.findViewById(id).orElseThrow().name());
+        assertEquals(1, outbox().size());
+    }
+
+    @Test
+    @DisplayName("PatchReturning should keep the columns passed as null and record an UPDATED event")
+    void shouldPatchAndRecordEvent() {
+        // ARRANGE
+        Long id = seed("Ana", "ana@example.com");
+
+        // ACT
+        Optional<CustomerView> patched = customerRepository.patchReturning(id, null, "ana.maria@example.com", 0L);
+        Optional<CustomerView> stale = customerRepository.patchReturning(id, "Bia", null, 0L);
+
+        // ASSERT
+        assertEquals(Optional.of(new CustomerView(id, "Ana", "ana.maria@example.com", 1L)), patched);
+        assertTrue(stale.isEmpty());
+        List<OutboxRow> outbox = outbox();
+        assertEquals(1, outbox.size());
+        assertEquals("UPDATED", outbox.getFirst().type());
+        assertEquals("Ana", outbox.getFirst().payload().get("name").asString());
+        assertEquals("ana.maria@example.com", outbox.getFirst().payload().get("email").asString());
+    }
+
+    @Test
+    @DisplayName("DeleteReturning should return the removed row once and record a single DELETED event")
+    void shouldDeleteAndRecordEvent() {
+        // ARRANGE
+        Long id = seed("Ana", "ana@example.com");
+
+        // ACT
+        Optional<CustomerView> deleted = customerRepository.deleteReturning(id);
+        Optional<CustomerView> again = customerRepository.deleteReturning(id);
+
+        // ASSERT
+        assertEquals(Optional.of(new CustomerView(id, "Ana", "ana@example.com", 0L)), deleted);
+        assertTrue(again.isEmpty());
+        assertTrue(customerRepository.findViewById(id).isEmpty());
+        List<OutboxRow> outbox = outbox();
+        assertEquals(1, outbox.size());
+        assertEquals(id, outbox.getFirst().customerId());
+        assertEquals("DELETED", outbox.getFirst().type());
+        assertEquals("Ana", outbox.getFirst().payload().get("name").asString());
+    }
+
+    @Test
+    @DisplayName("Keyset reads should project rows into CustomerView in id order")
+    void shouldPageViewsInIdOrder() {
+        // ARRANGE
+        Long first = seed("Ana", "ana@example.com");
+        Long second = seed("Bia", "bia@example.com");
+        Long third = seed("Caio", "caio@example.com");
+
+        // ACT
+        List<CustomerView> page = customerRepository.findByIdGreaterThanOrderByIdAsc(first, Limit.of(5));
+
+        // ASSERT
+        assertEquals(List.of(
+                new CustomerView(second, "Bia", "bia@example.com", 0L),
+                new CustomerView(third, "Caio", "caio@example.com", 0L)), page);
+    }
+
+    @Test
+    @DisplayName("Name search should match % and _ in the prefix literally and ignore case")
+    void shouldMatchNamePrefixLiterally() {
+        // ARRANGE
+        Long percent = seed("100% Algodão", "a@example.com");
+        seed("100 Algodão", "b@example.com");
+        Long underscore = seed("a_b", "c@example.com");
+        seed("axb", "d@example.com");
+
+        // ACT
+        CustomerPage byPercent = customerService.searchCustomers(null, "100%", null, 10);
+        CustomerPage byUnderscore = customerService.searchCustomers(null, "A_", null, 10);
+
+        // ASSERT
+        assertEquals(List.of(new CustomerView(percent, "100% Algodão", "a@example.com", 0L)), byPercent.items());
+        assertEquals(List.of(new CustomerView(underscore, "a_b", "c@example.com", 0L)), byUnderscore.items());
+    }
+
+    @Test
+    @DisplayName("Email search should ignore case, apply the optional name prefix and page with the id cursor")
+    void shouldSearchByEmail() {
+        // ARRANGE
+        Long id = seed("Ana", "Ana@Example.com");
+
+        // ACT
+        CustomerPage byEmail = customerService.searchCustomers("ana@example.COM", null, null, 10);
+        CustomerPage withName = customerService.searchCustomers("ana@example.com", "an", null, 10);
+        CustomerPage otherName = customerService.searchCustomers("ana@example.com", "bi", null, 10);
+        CustomerPage afterCursor = customerService.searchCustomers("ana@example.com", null, id, 10);
+
+        // ASSERT
+        assertEquals(List.of(new CustomerView(id, "Ana", "Ana@Example.com", 0L)), byEmail.items());
+        assertEquals(byEmail.items(), withName.items());
+        assertTrue(otherName.items().isEmpty());
+        assertTrue(afterCursor.items().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Search predicates should be able to use the V2 expression indexes")
+    void shouldUseSearchIndexes() {
+        // ARRANGE
+        seed("Ana", "ana@example.com");
+
+        // ACT
+        // tiny tables would always be scanned: disabling seq scans shows whether the index can serve the predicate
+        List<String> plans = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+            return List.of(
+                    String.join("\n", jdbcTemplate.queryForList("EXPLAIN SELECT id FROM customer WHERE lower(name) LIKE 'an%'", String.class)),
+                    String.join("\n", jdbcTemplate.queryForList("EXPLAIN SELECT id FROM customer WHERE lower(email) = 'ana@example.com'", String.class)));
+        });
+
+        // ASSERT
+        assertTrue(plans.get(0).contains("idx_customer_name_prefix"), plans.get(0));
+        assertTrue(plans.get(1).contains("ux_customer_email"), plans.get(1));
+    }
+
+    @Test
+    @DisplayName("Relay should skip outbox rows locked by another relay and publish them once released")
+    void shouldSkipLockedRowsAndPublishTheRest() {
+        // ARRANGE
+        Long first = seed("Ana", "ana@example.com");
+        Long second = seed("Bia", "bia@example.com");
+        customerRepository.deleteReturning(first);
+        customerRepository.deleteReturning(second);
+        Long locked = jdbcTemplate.queryForObject("SELECT min(id) FROM customer_outbox", Long.class);
+
+        // ACT
+        List<Long> unpublishedWhileLocked = transactionTemplate.execute(status -> {
+            jdbcTemplate.queryForList("SELECT id FROM customer_outbox WHERE id = ? FOR UPDATE", Long.class, locked);
+            CompletableFuture.runAsync(relay::relay).join();
+            return unpublished();
+        });
+        relay.relay();
+
+        // ASSERT
+        assertEquals(List.of(locked), unpublishedWhileLocked);
+        assertTrue(unpublished().isEmpty());
+        assertEquals(2, outbox().size());
+    }
+
+    @Test
+    @DisplayName("JDBC idempotency store should reserve a key once, replay the stored response and take over expired keys")
+    void shouldReserveKeysThroughPostgres() {
+        // ARRANGE
+        assertInstanceOf(JdbcIdempotencyStore.class, idempotencyStore);
+        CustomerView response = new CustomerView(7L, "Ana", "ana@example.com", 1L);
+
+        // ACT
+        Optional<CustomerView> reserved = idempotencyStore.reserve("key-1", CustomerView.class);
+        assertThrows(IdempotencyConflictException.class, () -> idempotencyStore.reserve("key-1", CustomerView.class));
+        idempotencyStore.complete("key-1", response);
+        Optional<CustomerView> replayed = idempotencyStore.reserve("key-1", CustomerView.class);
+        jdbcTemplate.update("UPDATE idempotency_key SET expires_at = now() - interval '1 second' WHERE idem_key = 'key-1'");
+        Optional<CustomerView> takenOver = idempotencyStore.reserve("key-1", CustomerView.class);
+
+        // ASSERT
+        assertTrue(reserved.isEmpty());
+        assertEquals(Optional.of(response), replayed);
+        assertTrue(takenOver.isEmpty());
+        assertEquals("IN_FLIGHT", jdbcTemplate.queryForObject(
+                "SELECT status FROM idempotency_key WHERE idem_key = 'key-1' AND response IS NULL AND expires_at > now()", String.class));
+    }
+
+    @Test
+    @DisplayName("Flyway should move the customer sequence past ids that already exist")
+    void shouldMoveSequencePastExistingIds() {
+        // ARRANGE
+        // a schema as ddl-auto left it: IDENTITY ids, no version column, no Flyway history
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS legacy CASCADE");
+        jdbcTemplate.execute("CREATE SCHEMA legacy");
+        jdbcTemplate.execute("CREATE TABLE legacy.customer (id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, name varchar(255), email varchar(255))");
+        jdbcTemplate.update("INSERT INTO legacy.customer (name, email) SELECT 'c' || n, 'c' || n || '@example.com' FROM generate_series(1, 120) n");
+
+        try {
+            // ACT
+            // the application's settings (locations, lock mode, baseline) pointed at the legacy schema
+            Flyway.configure()
+                    .configuration(flyway.getConfiguration())
+                    .schemas("legacy")
+                    .defaultSchema("legacy")
+                    .load()
+                    .migrate();
+            Long next = jdbcTemplate.queryForObject("SELECT nextval('legacy.customer_seq')", Long.class);
+
+            // ASSERT
+            // the pooled optimizer hands out the block ending at the returned value
+            assertTrue(next - 50 + 1 > 120, "next block starts at " + (next - 50 + 1));
+            assertEquals(0L, jdbcTemplate.queryForObject("SELECT version FROM legacy.customer WHERE id = 1", Long.class));
+        } finally {
+            jdbcTemplate.execute("DROP SCHEMA legacy CASCADE");
+        }
+    }
+
+    private Long seed(String name, String email) {
+        // straight through JPA: no CREATED event, so each test only sees the events it caused
+        return customerRepository.saveAndFlush(new Customer(null, name, email)).getId();
+    }
+
+    private List<Long> unpublished() {
+        return jdbcTemplate.queryForList("SELECT id FROM customer_outbox WHERE published_at IS NULL ORDER BY id", Long.class);
+    }
+
+    private List<OutboxRow> outbox() {
+        return jdbcTemplate.query("SELECT customer_id, type, payload FROM customer_outbox ORDER BY id", (rs, rowNum) ->
+                new OutboxRow(rs.getLong("customer_id"), rs.getString("type"), objectMapper.readTree(rs.getString("payload"))));
+    }
+
+    private record OutboxRow(Long customerId, String type, JsonNode payload) {}
+
+}
@@ -1,18 +1,37 @@
 package com.spring_base.fundamentals.service.cep;
 
 import com.spring_base.fundamentals.config.ApiProperties;
+import com.spring_base.fundamentals.config.CepCacheProperties;
+import com.spring_base.fundamentals.config.CepHedgingProperties;
+import com.spring_base.fundamentals.dto.CepPayload;
+import com.spring_base.fundamentals.dto.NationalizeResult;
+import com.spring_base.fundamentals.dto.RawJson;
+import com.spring_base.fundamentals.dto.ViaCepAddress;
+import com.spring_base.fundamentals.exception.UpstreamBusyException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.ArgumentMatchers.anyString;
 
@@ -34,50 +53,84 @@ public class CepApiClientTest {
     @Mock
     private ApiProperties apiProperties;
 
-    @InjectMocks
+    private UpstreamLimiter viaCepLimiter;
+
+    private UpstreamLimiter nationalizeLimiter;
+
     private CepApiClient cepApiClient;
 
     @BeforeEach
     void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CepCacheProperties.Upstream upstream = new CepCacheProperties.Upstream(100, Duration.ofMinutes(5), Duration.ofMinutes(1), Duration.ofDays(1));
+        CepLookupCache cache = new CepLookupCache(new CepCacheProperties(upstream, upstream), meterRegistry);
+        RequestHedger hedger = new RequestHedger(new CepHedgingProperties(false, 0.95, Duration.ofMillis(50), 0.05, 10), meterRegistry);
+        viaCepLimiter = new UpstreamLimiter("viacep", 1, Duration.ofMillis(50), meterRegistry);
+        nationalizeLimiter = new UpstreamLimiter("nationalize", 1, Duration.ofMillis(50), meterRegistry);
+        cepApiClient = new CepApiClient(webClient, apiProperties, cache, hedger,
+                resilience("viacep", meterRegistry), resilience("nationalize", meterRegistry), viaCepLimiter, nationalizeLimiter);
+
         when(webClient.get()).thenReturn(requestHeadersUriSpec);
         when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
         when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
     }
 
     @Test
-    @DisplayName("FetchViaCep should return correct response")
+    @DisplayName("FetchViaCep should decode the body into a ViaCepAddress")
     void shouldReturnCorrectResponseViaFetchViaCep() {
         // ARRANGE
-        when(apiProperties.viacep()).thenReturn(new ApiProperties.ViaCep("http://fake-viecep"));
-        when(responseSpec.bodyToMono(String.class)).thenReturn(Mono.just("fake response"));
+        ViaCepAddress address = address();
+        when(apiProperties.viacep()).thenReturn(new ApiProperties.ViaCep("http://fake-viecep", null));
+        when(apiProperties.payload()).thenReturn(ApiProperties.PayloadMode.TYPED);
+        when(responseSpec.bodyToMono(ViaCepAddress.class)).thenReturn(Mono.just(address));
 
         // ACT
-        String result = cepApiClient.fetchViaCep("83402220");
+        CepPayload result = cepApiClient.fetchViaCep("83402220");
 
         // ASSERT
-        assertEquals("fake response", result);
+        assertEquals(address, result);
     }
 
     @Test
-    @DisplayName("Nacionalize should return correct response")
+    @DisplayName("Nacionalize should decode the body into a NationalizeResult")
     void shouldReturnCorrectResponseViaFetchNacionalize() {
         // ARRANGE
-        when(apiProperties.second()).thenReturn(new ApiProperties.Second("http://fake-nationalize"));
-        when(responseSpec.bodyToMono(String.class)).thenReturn(Mono.just("fake response"));
+        NationalizeResult nationalize = new NationalizeResult(1, "lucas", List.of(new NationalizeResult.Country("BR", 0.4)));
+        when(apiProperties.second()).thenReturn(new ApiProperties.Second("http://fake-nationalize", null));
+        when(apiProperties.payload()).thenReturn(ApiProperties.PayloadMode.TYPED);
+        when(responseSpec.bodyToMono(NationalizeResult.class)).thenReturn(Mono.just(nationalize));
+
+        // ACT
+        CepPayload result = cepApiClient.fetchNationalize("lucas");
+
+        // ASSERT
+        assertEquals(nationalize, result);
+    }
+
+    @Test
+    @DisplayName("Raw payload mode should pass the upstream body through without decoding it")
+    void shouldPassRawBodyThrough() {
+        // ARRANGE
+        when(apiProperties.viacep()).thenReturn(new ApiProperties.ViaCep("http://fake-viecep", null));
+        when(apiProperties.payload()).thenReturn(ApiProperties.PayloadMode.RAW);
+        when(responseSpec.bodyToMono(String.class)).thenReturn(Mono.just("{\"erro\": \"true\"}"));
 
         // ACT
-        String result = cepApiClient.fetchNationalize("83402220");
+        CepPayload result = cepApiClient.fetchViaCep("00000000");
 
         // ASSERT
-        assertEquals("fake response", result);
+        RawJson raw = assertInstanceOf(RawJson.class, result);
+        assertEquals("{\"erro\": \"true\"}", raw.json());
+        assertTrue(raw.notFound());
     }
 
     @Test
     @DisplayName("Should throw exception when fetchViaCep fails")
     void shouldThrowExceptionWhenFetchViaCepFails() {
         // ARRANGE
-        when(apiProperties.viacep()).thenReturn(new ApiProperties.ViaCep("http://fake-viecep"));
-        when(responseSpec.bodyToMono(String.class))
+        when(apiProperties.viacep()).thenReturn(new ApiProperties.ViaCep("http://fake-viecep", null));
+        when(apiProperties.payload()).thenReturn(ApiProperties.PayloadMode.TYPED);
+        when(responseSpec.bodyToMono(ViaCepAddress.class))
                 .thenThrow(new RuntimeException("API down"));
 
         // ACT
@@ -87,4 +140,87 @@ public class CepApiClientTest {
         });
     }
 
+    @Test
+    @DisplayName("FetchViaCep should serve repeated lookups from cache")
+    void shouldServeRepeatedLookupsFromCache() {
+        // ARRANGE
+        ViaCepAddress address = address();
+        when(apiProperties.viacep()).thenReturn(new ApiProperties.ViaCep("http://fake-viecep", null));
+        when(apiProperties.payload()).thenReturn(ApiProperties.PayloadMode.TYPED);
+        when(responseSpec.bodyToMono(ViaCepAddress.class)).thenReturn(Mono.just(address));
+
+        // ACT
+        cepApiClient.fetchViaCep("83402220");
+        CepPayload result = cepApiClient.fetchViaCep("83402220");
+
+        // ASSERT
+        assertEquals(address, result);
+        verify(webClient, times(1)).get();
+    }
+
+    @Test
+    @DisplayName("FetchNationalize should return null instead of failing when the upstream is down")
+    void shouldOmitNationalizeWhenUpstreamFails() {
+        // ARRANGE
+        when(apiProperties.second()).thenReturn(new ApiProperties.Second("http://fake-nationalize", null));
+        when(apiProperties.payload()).thenReturn(ApiProperties.PayloadMode.TYPED);
+        when(responseSpec.bodyToMono(NationalizeResult.class)).thenReturn(Mono.error(new RuntimeException("API down")));
+
+        // ACT
+        CepPayload result = cepApiClient.fetchNationalize("83402220");
+
+        // ASSERT
+        assertNull(result);
+    }
+
+    @Test
+    @DisplayName("FetchViaCep should answer cache hits without a limiter permit")
+    void shouldServeCacheHitsWithoutPermit() {
+        // ARRANGE
+        ViaCepAddress address = address();
+        when(apiProperties.viacep()).thenReturn(new ApiProperties.ViaCep("http://fake-viecep", null));
+        when(apiProperties.payload()).thenReturn(ApiProperties.PayloadMode.TYPED);
+        when(responseSpec.bodyToMono(ViaCepAddress.class)).thenReturn(Mono.just(address));
+        cepApiClient.fetchViaCep("83402220");
+        Disposable holder = viaCepLimiter.limit(Mono::never).subscribe();
+
+        // ACT
+        CepPayload result = cepApiClient.fetchViaCep("83402220");
+
+        // ASSERT
+        assertEquals(address, result);
+        assertThrows(UpstreamBusyException.class, () -> cepApiClient.fetchViaCep("01001000"));
+        holder.dispose();
+    }
+
+    @Test
+    @DisplayName("FetchNationalize should be left out instead of failing when its limiter is full")
+    void shouldOmitNationalizeWhenLimiterIsFull() {
+        // ARRANGE
+        NationalizeResult nationalize = new NationalizeResult(1, "lucas", List.of(new NationalizeResult.Country("BR", 0.4)));
+        when(apiProperties.second()).thenReturn(new ApiProperties.Second("http://fake-nationalize", null));
+        when(apiProperties.payload()).thenReturn(ApiProperties.PayloadMode.TYPED);
+        when(responseSpec.bodyToMono(NationalizeResult.class)).thenReturn(Mono.just(nationalize));
+        Disposable holder = nationalizeLimiter.limit(Mono::never).subscribe();
+
+        // ACT
+        CepPayload result = cepApiClient.fetchNationalize("lucas");
+
+        // ASSERT
+        assertNull(result);
+        holder.dispose();
+        // another key: Caffeine drops the failed "lucas" load asynchronously
+        assertEquals(nationalize, cepApiClient.fetchNationalize("maria"));
+    }
+
+    private static ViaCepAddress address() {
+        return new ViaCepAddress("83402-220", "Rua Fake", "", "", "Centro", "Colombo", "PR", "Paraná", "Sul",
+                "4105805", "", "41", "7535", null);
+    }
+
+    private static UpstreamResilience resilience(String upstream, SimpleMeterRegistry meterRegistry) {
+        return new UpstreamResilience(upstream, CircuitBreaker.ofDefaults(upstream),
+                Retry.of(upstream, RetryConfig.custom().maxAttempts(1).build()), meterRegistry);
+    }
+
 }
@@ -0,0 +1,113 @@
+package com.spring_base.fundamentals.service.cep;
+
+import com.spring_base.fundamentals.config.CepBatchProperties;
+import com.spring_base.fundamentals.dto.CepBatchResponse;
+import com.spring_base.fundamentals.dto.CepResponse;
+import com.spring_base.fundamentals.dto.RawJson;
+import com.spring_base.fundamentals.exception.InvalidCepBatchException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CepBatchServiceTest {
+
+    @Mock
+    private CepFetcher fetcher;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CepBatchService cepBatchService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cepBatchService = new CepBatchService(fetcher, new CepBatchProperties(10, 2), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Batch: should dedupe CEPs and keep request order")
+    void shouldDedupeAndKeepOrder() {
+        // ARRANGE
+        when(fetcher.fetchAsync(anyString()))
+                .thenAnswer(invocation -> Mono.just(response(invocation.getArgument(0))));
+
+        // ACT
+        CepBatchResponse response = cepBatchService.fetchAll(List.of("83402220", "01001000", "83402220")).block();
+
+        // ASSERT
+        assertEquals(3, response.requested());
+        assertEquals(2, response.unique());
+        assertEquals(List.of("83402220", "01001000"), response.results().stream().map(item -> item.cep()).toList());
+        verify(fetcher, times(1)).fetchAsync("83402220");
+    }
+
+    @Test
+    @DisplayName("Batch: should report per-item errors without failing the batch")
+    void shouldReportPerItemErrors() {
+        // ARRANGE
+        when(fetcher.fetchAsync("83402220")).thenReturn(Mono.just(response("83402220")));
+        when(fetcher.fetchAsync("00000000")).thenReturn(Mono.error(new RuntimeException("API down")));
+
+        // ACT
+        CepBatchResponse response = cepBatchService.fetchAll(List.of("83402220", "00000000")).block();
+
+        // ASSERT
+        assertEquals(1, response.failed());
+        assertNotNull(response.results().get(0).data());
+        assertEquals("API down", response.results().get(1).error());
+        assertEquals(1.0, meterRegistry.get("cep.batch.failures").counter().count());
+        assertEquals(1, meterRegistry.get("cep.batch").timer().count());
+    }
+
+    @Test
+    @DisplayName("Batch: should never have more lookups in flight than configured")
+    void shouldBoundLookupsInFlight() {
+        // ARRANGE
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(fetcher.fetchAsync(anyString())).thenAnswer(invocation -> Mono.defer(() -> {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    return Mono.delay(Duration.ofMillis(20)).thenReturn(response("00000000"));
+                })
+                .doOnTerminate(inFlight::decrementAndGet));
+        List<String> ceps = IntStream.range(0, 10).mapToObj(i -> "0000000" + i).toList();
+
+        // ACT
+        cepBatchService.fetchAll(ceps).block();
+
+        // ASSERT
+        assertTrue(maxInFlight.get() <= 2);
+    }
+
+    @Test
+    @DisplayName("Batch: should reject batches larger than the configured maximum")
+    void shouldRejectOversizedBatch() {
+        // ARRANGE
+        List<String> ceps = IntStream.range(0, 11).mapToObj(i -> "cep-" + i).toList();
+
+        // ACT + ASSERT
+        assertThrows(InvalidCepBatchException.class, () -> cepBatchService.fetchAll(ceps));
+    }
+
+    private static CepResponse response(String cep) {
+        return new CepResponse(new RawJson("{\"cep\":\"" + cep + "\"}", false), null, 0L, "Reactive");
+    }
+
+}
@@ -0,0 +1,132 @@
+package com.spring_base.fundamentals.service.cep;
+
+import com.spring_base.fundamentals.config.CepCacheProperties;
+import com.spring_base.fundamentals.dto.CepPayload;
+import com.spring_base.fundamentals.dto.RawJson;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CepLookupCacheTest {
+
+    private static final CepPayload FAKE_RESPONSE = new RawJson("fake response", false);
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CepLookupCache cepLookupCache;
+
+    @BeforeEach
+    void setUp() {
+        CepCacheProperties.Upstream upstream = new CepCacheProperties.Upstream(100, Duration.ofMinutes(5), Duration.ofMinutes(1), Duration.ofDays(1));
+        meterRegistry = new SimpleMeterRegistry();
+        cepLookupCache = new CepLookupCache(new CepCacheProperties(upstream, upstream), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should coalesce concurrent misses for the same CEP into one upstream call")
+    void shouldCoalesceConcurrentMisses() throws Exception {
+        // ARRANGE
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<CepPayload>> results = new ArrayList<>();
+
+        // ACT
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 500; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return cepLookupCache.viaCep("83402220", cep -> {
+                        upstreamCalls.incrementAndGet();
+                        return Mono.delay(Duration.ofMillis(200)).thenReturn(FAKE_RESPONSE);
+                    }).block();
+                }));
+            }
+            start.countDown();
+            for (Future<CepPayload> result : results) {
+                assertEquals(FAKE_RESPONSE, result.get());
+            }
+        }
+
+        // ASSERT
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    @DisplayName("Should not cache failed upstream calls")
+    void shouldNotCacheFailures() {
+        // ARRANGE
+        AtomicInteger upstreamCalls = new AtomicInteger();
+
+        // ACT
+        assertThrows(RuntimeException.class, () -> cepLookupCache.viaCep("83402220", cep -> {
+            upstreamCalls.incrementAndGet();
+            return Mono.error(new RuntimeException("API down"));
+        }).block());
+        CepPayload result = cepLookupCache.viaCep("83402220", cep -> {
+            upstreamCalls.incrementAndGet();
+            return Mono.just(FAKE_RESPONSE);
+        }).block();
+
+        // ASSERT
+        assertEquals(FAKE_RESPONSE, result);
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    @DisplayName("Should serve the last good answer when a reload fails after the TTL")
+    void shouldServeStaleValueWhenReloadFails() throws Exception {
+        // ARRANGE
+        CepCacheProperties.Upstream shortLived = new CepCacheProperties.Upstream(100, Duration.ofMillis(1), Duration.ofMillis(1), Duration.ofDays(1));
+        CepLookupCache cache = new CepLookupCache(new CepCacheProperties(shortLived, shortLived), meterRegistry);
+        cache.viaCep("83402220", cep -> Mono.just(FAKE_RESPONSE)).block();
+        Thread.sleep(20);
+
+        // ACT
+        CepPayload result = cache.viaCep("83402220", cep -> Mono.error(new RuntimeException("API down"))).block();
+
+        // ASSERT
+        assertEquals(FAKE_RESPONSE, result);
+        assertEquals(1.0, meterRegistry.get("cep.fallback").tag("upstream", "viacep").tag("type", "stale").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should not keep a not-found answer as a stale fallback")
+    void shouldNotServeNotFoundAsStale() throws Exception {
+        // ARRANGE
+        CepCacheProperties.Upstream shortLived = new CepCacheProperties.Upstream(100, Duration.ofMillis(1), Duration.ofMillis(1), Duration.ofDays(1));
+        CepLookupCache cache = new CepLookupCache(new CepCacheProperties(shortLived, shortLived), meterRegistry);
+        cache.viaCep("00000000", cep -> Mono.just(new RawJson("{\"erro\": \"true\"}", true))).block();
+        Thread.sleep(20);
+
+        // ACT
+        // ASSERT
+        assertThrows(RuntimeException.class, () -> cache.viaCep("00000000", cep -> Mono.error(new RuntimeException("API down"))).block());
+    }
+
+    @Test
+    @DisplayName("Should publish hit and miss counts to the MeterRegistry")
+    void shouldPublishHitAndMissMetrics() {
+        // ACT
+        cepLookupCache.nationalize("lucas", name -> Mono.just(FAKE_RESPONSE)).block();
+        cepLookupCache.nationalize("lucas", name -> Mono.just(FAKE_RESPONSE)).block();
+
+        // ASSERT
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "cep.nationalize").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "cep.nationalize").tag("result", "miss").functionCounter().count());
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.spring_base.fundamentals.service.cep;
+
+import com.spring_base.fundamentals.config.CepBatchProperties;
+import com.spring_base.fundamentals.dto.CepBatchItem;
+import com.spring_base.fundamentals.dto.CepResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CepStreamServiceTest {
+
+    private static final CepResponse RESPONSE = new CepResponse(null, null, 0L, "Reactive");
+
+    @Mock
+    private CepBatchService cepBatchService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CepStreamService cepStreamService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cepStreamService = new CepStreamService(cepBatchService, JsonMapper.builder().build(), new CepBatchProperties(10, 4), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Stream: should accept object and string NDJSON lines")
+    void shouldAcceptObjectAndStringLines() {
+        // ARRANGE
+        when(cepBatchService.fetchOne(anyString()))
+                .thenAnswer(invocation -> Mono.just(CepBatchItem.success(invocation.getArgument(0), RESPONSE)));
+
+        // ACT
+        List<CepBatchItem> items = cepStreamService.stream(Flux.just("{\"cep\": \"83402220\"}", "", "\"01001000\"")).collectList().block();
+
+        // ASSERT
+        assertEquals(2, items.size());
+        verify(cepBatchService).fetchOne("83402220");
+        verify(cepBatchService).fetchOne("01001000");
+    }
+
+    @Test
+    @DisplayName("Stream: should emit an error item for invalid lines")
+    void shouldEmitErrorItemForInvalidLines() {
+        // ACT
+        List<CepBatchItem> items = cepStreamService.stream(Flux.just("not json")).collectList().block();
+
+        // ASSERT
+        assertEquals(1, items.size());
+        assertNotNull(items.get(0).error());
+        assertEquals(1.0, meterRegistry.get("cep.stream.invalid_lines").counter().count());
+        verify(cepBatchService, never()).fetchOne(anyString());
+    }
+
+    @Test
+    @DisplayName("Stream: should emit results in completion order")
+    void shouldEmitInCompletionOrder() {
+        // ARRANGE
+        when(cepBatchService.fetchOne("11111111"))
+                .thenReturn(Mono.delay(Duration.ofMillis(200)).thenReturn(CepBatchItem.success("11111111", RESPONSE)));
+        when(cepBatchService.fetchOne("22222222"))
+                .thenReturn(Mono.just(CepBatchItem.success("22222222", RESPONSE)));
+
+        // ACT
+        List<CepBatchItem> items = cepStreamService.stream(Flux.just("\"11111111\"", "\"22222222\"")).collectList().block();
+
+        // ASSERT
+        assertEquals(List.of("22222222", "11111111"), items.stream().map(CepBatchItem::cep).toList());
+    }
+
+}
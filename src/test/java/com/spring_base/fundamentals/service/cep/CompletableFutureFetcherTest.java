@@ -1,71 +1,113 @@
 package com.spring_base.fundamentals.service.cep;
 
-import io.micrometer.core.instrument.Counter;
-import io.micrometer.core.instrument.MeterRegistry;
+import com.spring_base.fundamentals.dto.CepPayload;
+import com.spring_base.fundamentals.dto.CepResponse;
+import com.spring_base.fundamentals.dto.RawJson;
+import com.spring_base.fundamentals.exception.UpstreamUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.Map;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 public class CompletableFutureFetcherTest {
 
+    private static final CepPayload VIA_CEP = new RawJson("{\"cep\":\"83402-220\"}", false);
+
+    private static final CepPayload NATIONALIZE = new RawJson("{\"count\":1}", false);
+
     @Mock
     private CepApiClient cepApiClient;
 
-    @Mock
-    private MeterRegistry meterRegistry;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
 
-    @Mock
-    private Counter counter;
+    private final ExecutorService executor = Executors.newFixedThreadPool(2, Thread.ofPlatform().name("cep-v1-test-", 0).factory());
 
-    @InjectMocks
     private CompletableFutureFetcher completableFutureFetcher;
 
     @BeforeEach
     void setUp() {
-        when(meterRegistry.counter(anyString(), any(String[].class))).thenReturn(counter);
+        completableFutureFetcher = new CompletableFutureFetcher(meterRegistry, cepApiClient, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
     }
 
     @Test
     @DisplayName("CompletableFuture: should return CEP data")
     void shouldReturnCepDataWithCompletableFuture() {
         // ARRANGE
-        when(cepApiClient.fetchViaCep("83402220")).thenReturn("fake cep response");
-        when(cepApiClient.fetchNationalize("83402220")).thenReturn("fake nationalize response");
+        when(cepApiClient.fetchViaCep("83402220")).thenReturn(VIA_CEP);
+        when(cepApiClient.fetchNationalize("83402220")).thenReturn(NATIONALIZE);
 
         // ACT
-        Map<String, Object> result = completableFutureFetcher.fetch("83402220");
+        CepResponse result = completableFutureFetcher.fetch("83402220");
 
         // ASSERT
-        assertEquals("fake cep response", result.get("viaCep"));
-        assertEquals("fake nationalize response", result.get("nationalize"));
-        assertEquals("CompletableFuture", result.get("method"));
+        assertEquals(VIA_CEP, result.viaCep());
+        assertEquals(NATIONALIZE, result.nationalize());
+        assertEquals("CompletableFuture", result.method());
     }
 
     @Test
     @DisplayName("CompletableFuture: should contain execution time")
     void shouldContainExecutionTimeInResult() {
         // ARRANGE
-        when(cepApiClient.fetchViaCep("83402220")).thenReturn("fake cep response");
-        when(cepApiClient.fetchNationalize("83402220")).thenReturn("fake nationalize response");
+        when(cepApiClient.fetchViaCep("83402220")).thenReturn(VIA_CEP);
+        when(cepApiClient.fetchNationalize("83402220")).thenReturn(NATIONALIZE);
+
+        // ACT
+        CepResponse result = completableFutureFetcher.fetch("83402220");
+
+        // ASSERT
+        assertTrue(result.elapsedMs() >= 0);
+    }
+
+    @Test
+    @DisplayName("CompletableFuture: should run upstream calls on the dedicated executor")
+    void shouldRunUpstreamCallsOnDedicatedExecutor() {
+        // ARRANGE
+        when(cepApiClient.fetchViaCep("83402220")).thenAnswer(invocation -> new RawJson(Thread.currentThread().getName(), false));
+        when(cepApiClient.fetchNationalize("83402220")).thenAnswer(invocation -> new RawJson(Thread.currentThread().getName(), false));
+
+        // ACT
+        CepResponse result = completableFutureFetcher.fetch("83402220");
+
+        // ASSERT
+        assertTrue(((RawJson) result.viaCep()).json().startsWith("cep-v1-test-"));
+        assertTrue(((RawJson) result.nationalize()).json().startsWith("cep-v1-test-"));
+    }
+
+    @Test
+    @DisplayName("CompletableFuture: should count failed lookups by exception type and leave nothing in flight")
+    void shouldCountFailuresByExceptionType() {
+        // ARRANGE
+        when(cepApiClient.fetchViaCep("83402220")).thenThrow(new UpstreamUnavailableException("viacep", new IOException("Connection reset")));
+        when(cepApiClient.fetchNationalize("83402220")).thenReturn(NATIONALIZE);
 
         // ACT
-        Map<String, Object> result = completableFutureFetcher.fetch("83402220");
+        assertThrows(UpstreamUnavailableException.class, () -> completableFutureFetcher.fetch("83402220"));
 
         // ASSERT
-        assertNotNull(result.get("elapsedMs"));
+        assertEquals(1, meterRegistry.get("cep.requests").tag("version", "v1").counter().count());
+        assertEquals(1, meterRegistry.get("cep.fetch.errors").tag("version", "v1").tag("exception", "UpstreamUnavailableException").counter().count());
+        assertEquals(1, meterRegistry.get("cep.upstream.call").tag("version", "v1").tag("upstream", "viacep").tag("outcome", "unavailable").timer().count());
+        assertEquals(0, meterRegistry.get("cep.fetch.in_flight").tag("version", "v1").gauge().value());
     }
 
 }
@@ -0,0 +1,119 @@
+package com.spring_base.fundamentals.service.cep;
+
+import com.spring_base.fundamentals.dto.CepPayload;
+import com.spring_base.fundamentals.dto.CepResponse;
+import com.spring_base.fundamentals.dto.RawJson;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveFetcherTest {
+
+    private static final CepPayload VIA_CEP = new RawJson("{\"cep\":\"83402-220\"}", false);
+
+    private static final CepPayload NATIONALIZE = new RawJson("{\"count\":1}", false);
+
+    @Mock
+    private CepApiClient cepApiClient;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ReactiveFetcher reactiveFetcher;
+
+    @BeforeEach
+    void setUp() {
+        reactiveFetcher = new ReactiveFetcher(meterRegistry, cepApiClient);
+    }
+
+    @Test
+    @DisplayName("Reactive: should return CEP data")
+    void shouldReturnCepDataWithReactive() {
+        // ARRANGE
+        when(cepApiClient.viaCep("83402220")).thenReturn(Mono.just(VIA_CEP));
+        when(cepApiClient.nationalize("83402220")).thenReturn(Mono.just(NATIONALIZE));
+
+        // ACT
+        CepResponse result = reactiveFetcher.fetchAsync("83402220").block();
+
+        // ASSERT
+        assertEquals(VIA_CEP, result.viaCep());
+        assertEquals(NATIONALIZE, result.nationalize());
+        assertEquals("Reactive", result.method());
+        assertTrue(result.elapsedMs() >= 0);
+    }
+
+    @Test
+    @DisplayName("Reactive: should return a partial response when nationalize is unavailable")
+    void shouldOmitNationalizeWhenEmpty() {
+        // ARRANGE
+        when(cepApiClient.viaCep("83402220")).thenReturn(Mono.just(VIA_CEP));
+        when(cepApiClient.nationalize("83402220")).thenReturn(Mono.empty());
+
+        // ACT
+        CepResponse result = reactiveFetcher.fetchAsync("83402220").block();
+
+        // ASSERT
+        assertEquals(VIA_CEP, result.viaCep());
+        assertNull(result.nationalize());
+    }
+
+    @Test
+    @DisplayName("Reactive: should never call the blocking client methods")
+    void shouldNotUseBlockingClientMethods() {
+        // ARRANGE
+        when(cepApiClient.viaCep("83402220")).thenReturn(Mono.just(VIA_CEP));
+        when(cepApiClient.nationalize("83402220")).thenReturn(Mono.just(NATIONALIZE));
+
+        // ACT
+        reactiveFetcher.fetch("83402220");
+
+        // ASSERT
+        verify(cepApiClient, never()).fetchViaCep(anyString());
+        verify(cepApiClient, never()).fetchNationalize(anyString());
+    }
+
+    @Test
+    @DisplayName("Should propagate error when CEP API fails")
+    void shouldPropagateErrorWhenCepApiFails() {
+        // ARRANGE
+        when(cepApiClient.viaCep("83402220")).thenReturn(Mono.error(new RuntimeException("API down")));
+        when(cepApiClient.nationalize("83402220")).thenReturn(Mono.just(NATIONALIZE));
+
+        // ACT
+        // ASSERT
+        assertThrows(RuntimeException.class, () -> {
+            reactiveFetcher.fetchAsync("83402220").block();
+        });
+    }
+
+    @Test
+    @DisplayName("Reactive: should release the in-flight gauge when the lookup is cancelled")
+    void shouldReleaseInFlightOnCancel() {
+        // ARRANGE
+        when(cepApiClient.viaCep("83402220")).thenReturn(Mono.never());
+        when(cepApiClient.nationalize("83402220")).thenReturn(Mono.just(NATIONALIZE));
+
+        // ACT
+        assertThrows(IllegalStateException.class, () -> reactiveFetcher.fetchAsync("83402220").block(Duration.ofMillis(50)));
+
+        // ASSERT
+        assertEquals(1, meterRegistry.get("cep.requests").tag("version", "v3").counter().count());
+        assertEquals(0, meterRegistry.get("cep.fetch.in_flight").tag("version", "v3").gauge().value());
+        assertEquals(0, meterRegistry.get("cep.fetch").tag("version", "v3").tag("outcome", "error").timer().count());
+    }
+
+}
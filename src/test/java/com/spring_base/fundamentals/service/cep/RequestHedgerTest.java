@@ -0,0 +1,144 @@
+package com.spring_base.fundamentals.service.cep;
+
+import com.spring_base.fundamentals.config.CepHedgingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestHedgerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Hedging disabled: should subscribe to the request exactly once")
+    void shouldCallOnceWhenDisabled() {
+        // ARRANGE
+        RequestHedger hedger = hedger(false, 10);
+        AtomicInteger calls = new AtomicInteger();
+
+        // ACT
+        String result = hedger.hedge("viacep", () -> {
+            calls.incrementAndGet();
+            return Mono.delay(Duration.ofMillis(100)).thenReturn("primary");
+        }).block();
+
+        // ASSERT
+        assertEquals("primary", result);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    @DisplayName("Hedging enabled: should answer with the hedge when the primary call is slow")
+    void shouldAnswerWithHedgeWhenPrimaryIsSlow() {
+        // ARRANGE
+        RequestHedger hedger = hedger(true, 10);
+
+        // ACT
+        long start = System.nanoTime();
+        String result = hedger.hedge("viacep", slowThenFast()).block();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // ASSERT
+        assertEquals("hedge", result);
+        assertTrue(elapsed.compareTo(Duration.ofSeconds(2)) < 0);
+        assertEquals(1.0, meterRegistry.get("cep.hedge.wins").tag("upstream", "viacep").counter().count());
+    }
+
+    @Test
+    @DisplayName("Hedging enabled: should skip the hedge when the budget is exhausted")
+    void shouldThrottleHedgesWhenBudgetExhausted() {
+        // ARRANGE
+        RequestHedger hedger = hedger(true, 1);
+
+        // ACT
+        hedger.hedge("viacep", slowThenFast()).block();
+        String second = hedger.hedge("viacep", () -> Mono.delay(Duration.ofMillis(300)).thenReturn("primary")).block();
+
+        // ASSERT
+        assertEquals("primary", second);
+        assertEquals(1.0, meterRegistry.get("cep.hedge.requests").tag("outcome", "sent").counter().count());
+        assertEquals(1.0, meterRegistry.get("cep.hedge.requests").tag("outcome", "throttled").counter().count());
+    }
+
+    @Test
+    @DisplayName("Hedging enabled: should return the primary error when no hedge was sent")
+    void shouldPropagatePrimaryError() {
+        // ARRANGE
+        RequestHedger hedger = hedger(true, 10);
+
+        // ACT + ASSERT
+        assertThrows(RuntimeException.class, () -> hedger.hedge("viacep",
+                () -> Mono.<String>error(new RuntimeException("API down"))).block());
+    }
+
+    @Test
+    @DisplayName("Hedging enabled: should wait for a hedge in flight when the primary fails")
+    void shouldPreferHedgeInFlightOverPrimaryError() {
+        // ARRANGE
+        RequestHedger hedger = hedger(true, 10);
+        AtomicInteger calls = new AtomicInteger();
+
+        // ACT
+        String result = hedger.hedge("viacep", () -> calls.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofMillis(100)).then(Mono.<String>error(new RuntimeException("API down")))
+                : Mono.delay(Duration.ofMillis(200)).thenReturn("hedge")).block();
+
+        // ASSERT
+        assertEquals("hedge", result);
+    }
+
+    @Test
+    @DisplayName("Hedging enabled: should return the primary error when the hedge fails too")
+    void shouldReturnPrimaryErrorWhenBothFail() {
+        // ARRANGE
+        RequestHedger hedger = hedger(true, 10);
+        AtomicInteger calls = new AtomicInteger();
+
+        // ACT
+        // ASSERT
+        RuntimeException error = assertThrows(RuntimeException.class, () -> hedger.hedge("viacep", () -> calls.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofMillis(100)).then(Mono.<String>error(new IllegalStateException("primary down")))
+                : Mono.<String>error(new RuntimeException("hedge down"))).block());
+        assertEquals("primary down", error.getMessage());
+    }
+
+    @Test
+    @DisplayName("Hedging enabled: should record slow primaries that lost to the hedge and failed ones")
+    void shouldRecordCancelledAndFailedPrimaries() {
+        // ARRANGE
+        RequestHedger hedger = hedger(true, 10);
+
+        // ACT
+        hedger.hedge("viacep", slowThenFast()).block();
+        assertThrows(RuntimeException.class, () -> hedger.hedge("viacep",
+                () -> Mono.<String>error(new RuntimeException("API down"))).block());
+
+        // ASSERT
+        assertEquals(2, meterRegistry.get("cep.hedge.primary.latency").tag("upstream", "viacep").timer().count());
+    }
+
+    private RequestHedger hedger(boolean enabled, int burst) {
+        return new RequestHedger(new CepHedgingProperties(enabled, 0.95, Duration.ofMillis(50), 0.05, burst), meterRegistry);
+    }
+
+    private static Supplier<Mono<String>> slowThenFast() {
+        AtomicInteger calls = new AtomicInteger();
+        return () -> calls.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofSeconds(5)).thenReturn("primary")
+                : Mono.just("hedge");
+    }
+
+}
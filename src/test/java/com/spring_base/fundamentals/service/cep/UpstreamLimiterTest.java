@@ -0,0 +1,83 @@
+package com.spring_base.fundamentals.service.cep;
+
+import com.spring_base.fundamentals.exception.UpstreamBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class UpstreamLimiterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private UpstreamLimiter upstreamLimiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        upstreamLimiter = new UpstreamLimiter("viacep", 1, Duration.ofMillis(50), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should run the call and release the permit")
+    void shouldRunCallAndReleasePermit() {
+        // ACT
+        String first = upstreamLimiter.limit(() -> Mono.just("first")).block();
+        String second = upstreamLimiter.limit(() -> Mono.just("second")).block();
+
+        // ASSERT
+        assertEquals("first", first);
+        assertEquals("second", second);
+        assertEquals(1.0, meterRegistry.get("cep.limiter.available").tag("upstream", "viacep").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should reject and count when no permit is available before the timeout")
+    void shouldRejectAndCountWhenNoPermitAvailable() {
+        // ARRANGE
+        Disposable holder = upstreamLimiter.limit(Mono::never).subscribe();
+
+        // ACT
+        // ASSERT
+        assertThrows(UpstreamBusyException.class, () -> upstreamLimiter.limit(() -> Mono.just("queued")).block());
+        assertEquals(1.0, meterRegistry.get("cep.limiter.rejected").tag("upstream", "viacep").counter().count());
+        holder.dispose();
+        assertEquals(1, upstreamLimiter.availablePermits());
+    }
+
+    @Test
+    @DisplayName("Should hand the permit to a queued call when the running one completes")
+    void shouldHandPermitToQueuedCall() {
+        // ARRANGE
+        Sinks.One<String> running = Sinks.one();
+        upstreamLimiter.limit(running::asMono).subscribe();
+        Mono<String> queued = upstreamLimiter.limit(() -> Mono.just("queued"));
+
+        // ACT
+        Mono.delay(Duration.ofMillis(10)).subscribe(tick -> running.tryEmitValue("running"));
+        String result = queued.block();
+
+        // ASSERT
+        assertEquals("queued", result);
+        assertEquals(1, upstreamLimiter.availablePermits());
+    }
+
+    @Test
+    @DisplayName("Should release the permit when the call fails")
+    void shouldReleasePermitWhenCallFails() {
+        // ACT
+        assertThrows(RuntimeException.class, () -> upstreamLimiter.limit(() -> Mono.error(new RuntimeException("API down"))).block());
+
+        // ASSERT
+        assertEquals("ok", upstreamLimiter.limit(() -> Mono.just("ok")).block());
+    }
+
+}
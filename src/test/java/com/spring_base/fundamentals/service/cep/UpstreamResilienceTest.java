@@ -0,0 +1,115 @@
+package com.spring_base.fundamentals.service.cep;
+
+import com.spring_base.fundamentals.exception.UpstreamUnavailableException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UpstreamResilienceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CircuitBreaker circuitBreaker;
+
+    private UpstreamResilience resilience;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreaker = CircuitBreaker.of("viacep", CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .recordException(UpstreamResilience::isTransient)
+                .build());
+        Retry retry = Retry.of("viacep", RetryConfig.custom()
+                .maxAttempts(3)
+                .waitDuration(Duration.ofMillis(1))
+                .retryOnException(UpstreamResilience::isTransient)
+                .build());
+        resilience = new UpstreamResilience("viacep", circuitBreaker, retry, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should retry transient upstream errors until the call succeeds")
+    void shouldRetryTransientErrors() {
+        // ARRANGE
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> call = Mono.defer(() -> attempts.incrementAndGet() < 3
+                ? Mono.error(status(503))
+                : Mono.just("fake response"));
+
+        // ACT
+        String result = resilience.decorate(call).block();
+
+        // ASSERT
+        assertEquals("fake response", result);
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    @DisplayName("Should not retry client errors")
+    void shouldNotRetryClientErrors() {
+        // ARRANGE
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> call = Mono.defer(() -> {
+            attempts.incrementAndGet();
+            return Mono.error(status(400));
+        });
+
+        // ACT
+        assertThrows(WebClientResponseException.class, () -> resilience.decorate(call).block());
+
+        // ASSERT
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    @DisplayName("Should fail fast with UpstreamUnavailableException once the circuit is open")
+    void shouldFailFastWhenCircuitIsOpen() {
+        // ARRANGE
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> call = Mono.defer(() -> {
+            attempts.incrementAndGet();
+            return Mono.error(status(503));
+        });
+        assertThrows(RuntimeException.class, () -> resilience.decorate(call).block());
+        assertThrows(RuntimeException.class, () -> resilience.decorate(call).block());
+        int attemptsBeforeOpen = attempts.get();
+
+        // ACT
+        // ASSERT
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertThrows(UpstreamUnavailableException.class, () -> resilience.decorate(call).block());
+        assertEquals(attemptsBeforeOpen, attempts.get());
+    }
+
+    @Test
+    @DisplayName("omitOnError should complete empty and count the fallback")
+    void shouldCompleteEmptyWhenOmitting() {
+        // ACT
+        String result = resilience.omitOnError(Mono.<String>error(new RuntimeException("API down"))).block();
+
+        // ASSERT
+        assertNull(result);
+        assertEquals(1.0, meterRegistry.get("cep.fallback").tag("type", "omitted").counter().count());
+    }
+
+    private static WebClientResponseException status(int code) {
+        return WebClientResponseException.create(code, "status " + code, null, null, null);
+    }
+
+}
@@ -1,70 +1,96 @@
 package com.spring_base.fundamentals.service.cep;
 
-import io.micrometer.core.instrument.Counter;
-import io.micrometer.core.instrument.MeterRegistry;
+import com.spring_base.fundamentals.dto.CepPayload;
+import com.spring_base.fundamentals.dto.CepResponse;
+import com.spring_base.fundamentals.dto.RawJson;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.Map;
+import com.spring_base.fundamentals.exception.UpstreamBusyException;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 public class VirtualThreadsFetcherTest {
 
+    private static final CepPayload VIA_CEP = new RawJson("{\"cep\":\"83402-220\"}", false);
+
+    private static final CepPayload NATIONALIZE = new RawJson("{\"count\":1}", false);
+
     @Mock
     private CepApiClient cepApiClient;
 
-    @Mock
-    private MeterRegistry meterRegistry;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
 
-    @Mock
-    private Counter counter;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
 
-    @InjectMocks
     private VirtualThreadsFetcher virtualThreadsFetcher;
 
     @BeforeEach
     void setUp() {
-        when(meterRegistry.counter(anyString(), any(String[].class))).thenReturn(counter);
+        virtualThreadsFetcher = new VirtualThreadsFetcher(meterRegistry, cepApiClient, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
     }
 
     @Test
     @DisplayName("VirtualThreads: should return CEP data")
     void shouldReturnCepDataWithVirtualThreads() {
         // ARRANGE
-        when(cepApiClient.fetchViaCep("83402220")).thenReturn("fake cep response");
-        when(cepApiClient.fetchNationalize("83402220")).thenReturn("fake nationalize response");
+        when(cepApiClient.fetchViaCep("83402220")).thenReturn(VIA_CEP);
+        when(cepApiClient.fetchNationalize("83402220")).thenReturn(NATIONALIZE);
 
         // ACT
-        Map<String, Object> result = virtualThreadsFetcher.fetch("83402220");
+        CepResponse result = virtualThreadsFetcher.fetch("83402220");
 
         // ASSERT
-        assertEquals("fake cep response", result.get("viaCep"));
-        assertEquals("fake nationalize response", result.get("nationalize"));
-        assertEquals("Virtual Threads", result.get("method"));
+        assertEquals(VIA_CEP, result.viaCep());
+        assertEquals(NATIONALIZE, result.nationalize());
+        assertEquals("Virtual Threads", result.method());
     }
 
     @Test
     @DisplayName("VirtualThreads: should contain execution time")
     void shouldContainExecutionTimeWithVirtualThreads() {
         // ARRANGE
-        when(cepApiClient.fetchViaCep("83402220")).thenReturn("fake cep response");
-        when(cepApiClient.fetchNationalize("83402220")).thenReturn("fake nationalize response");
+        when(cepApiClient.fetchViaCep("83402220")).thenReturn(VIA_CEP);
+        when(cepApiClient.fetchNationalize("83402220")).thenReturn(NATIONALIZE);
+
+        // ACT
+        CepResponse result = virtualThreadsFetcher.fetch("83402220");
+
+        // ASSERT
+        assertTrue(result.elapsedMs() >= 0);
+    }
+
+    @Test
+    @DisplayName("VirtualThreads: should time the lookup and each upstream call by version and outcome")
+    void shouldRecordFetchAndUpstreamTimers() {
+        // ARRANGE
+        when(cepApiClient.fetchViaCep("83402220")).thenReturn(new RawJson("{\"erro\": \"true\"}", true));
+        when(cepApiClient.fetchNationalize("83402220")).thenReturn(NATIONALIZE);
 
         // ACT
-        Map<String, Object> result = virtualThreadsFetcher.fetch("83402220");
+        virtualThreadsFetcher.fetch("83402220");
 
         // ASSERT
-        assertNotNull(result.get("elapsedMs"));
+        assertEquals(1, meterRegistry.get("cep.fetch").tag("version", "v2").tag("outcome", "success").timer().count());
+        assertEquals(1, meterRegistry.get("cep.upstream.call").tag("version", "v2").tag("upstream", "viacep").tag("outcome", "not_found").timer().count());
+        assertEquals(1, meterRegistry.get("cep.upstream.call").tag("version", "v2").tag("upstream", "nationalize").tag("outcome", "success").timer().count());
     }
 
     @Test
@@ -80,4 +106,21 @@ public class VirtualThreadsFetcherTest {
         });
     }
 
+    @Test
+    @DisplayName("Should fail with UpstreamBusyException and record a rejected call when ViaCep permits are exhausted")
+    void shouldRejectWhenViaCepPermitsAreExhausted() {
+        // ARRANGE
+        when(cepApiClient.fetchViaCep("83402220")).thenThrow(new UpstreamBusyException("viacep"));
+        // the ViaCep failure cancels the Nationalize call, which may not have started yet
+        lenient().when(cepApiClient.fetchNationalize("83402220")).thenReturn(NATIONALIZE);
+
+        // ACT
+        // ASSERT
+        assertThrows(UpstreamBusyException.class, () -> {
+            virtualThreadsFetcher.fetch("83402220");
+        });
+        assertEquals(1, meterRegistry.get("cep.upstream.call").tag("upstream", "viacep").tag("outcome", "rejected").timer().count());
+        assertEquals(1, meterRegistry.get("cep.fetch").tag("version", "v2").tag("outcome", "error").timer().count());
+    }
+
 }
@@ -0,0 +1,182 @@
+package com.spring_base.fundamentals.service.customer;
+
+import com.spring_base.fundamentals.config.CustomerBulkProperties;
+import com.spring_base.fundamentals.dto.CustomerBulkResponse;
+import com.spring_base.fundamentals.exception.InvalidCustomerBulkException;
+import com.spring_base.fundamentals.model.Customer;
+import com.spring_base.fundamentals.repository.CustomerRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CustomerBulkServiceTest {
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ValidatorFactory validatorFactory;
+
+    private CustomerBulkService customerBulkService;
+
+    @BeforeEach
+    void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        customerBulkService = new CustomerBulkService(
+                customerRepository,
+                new TransactionTemplate(transactionManager),
+                validatorFactory.getValidator(),
+                new CustomerBulkProperties(2, 10)
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    @DisplayName("BULK: should insert valid rows in chunks of the configured batch size")
+    void shouldInsertInChunks() {
+        // ARRANGE
+        List<Customer> customers = IntStream.range(0, 5)
+                .mapToObj(i -> new Customer(null, "Customer " + i, "customer" + i + "@email.com"))
+                .toList();
+        AtomicLong ids = new AtomicLong();
+        when(customerRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Customer> rows = invocation.getArgument(0);
+            rows.forEach(row -> row.setId(ids.incrementAndGet()));
+            return rows;
+        });
+
+        // ACT
+        CustomerBulkResponse response = customerBulkService.createAll(customers);
+
+        // ASSERT
+        assertEquals(5, response.created());
+        assertEquals(0, response.failed());
+        verify(customerRepository, times(3)).saveAll(anyList());
+        verify(customerRepository).recordCreatedEvents(List.of(1L, 2L));
+        verify(customerRepository).recordCreatedEvents(List.of(5L));
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    @DisplayName("BULK: should report invalid rows by index and skip them")
+    void shouldReportInvalidRows() {
+        // ARRANGE
+        List<Customer> customers = List.of(
+                new Customer(null, "Lucas", "lucas@email.com"),
+                new Customer(null, "", "not-an-email")
+        );
+
+        // ACT
+        CustomerBulkResponse response = customerBulkService.createAll(customers);
+
+        // ASSERT
+        assertEquals(1, response.created());
+        assertEquals(1, response.failed());
+        assertEquals(1, response.errors().get(0).index());
+        assertTrue(response.errors().get(0).message().contains("name"));
+        assertTrue(response.errors().get(0).message().contains("email"));
+    }
+
+    @Test
+    @DisplayName("BULK: should retry a failed chunk row by row and keep the good rows")
+    void shouldRetryFailedChunkRowByRow() {
+        // ARRANGE
+        List<Customer> customers = List.of(
+                new Customer(null, "Lucas", "lucas@email.com"),
+                new Customer(null, "Maria", "duplicate@email.com")
+        );
+        when(customerRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(customerRepository.saveAndFlush(any(Customer.class))).thenAnswer(invocation -> {
+            Customer customer = invocation.getArgument(0);
+            if ("Maria".equals(customer.getName())) {
+                throw new DataIntegrityViolationException("duplicate key");
+            }
+            customer.setId(1L);
+            return customer;
+        });
+
+        // ACT
+        CustomerBulkResponse response = customerBulkService.createAll(customers);
+
+        // ASSERT
+        assertEquals(1, response.created());
+        assertEquals(1, response.failed());
+        assertEquals(1, response.errors().get(0).index());
+        verify(customerRepository, times(2)).saveAndFlush(any(Customer.class));
+        verify(customerRepository).recordCreatedEvents(List.of(1L));
+    }
+
+    @Test
+    @DisplayName("BULK: should report a conflicting row with a fixed message instead of the driver text")
+    void shouldNotEchoDriverMessage() {
+        // ARRANGE
+        String driverMessage = "ERROR: duplicate key value violates unique constraint \"ux_customer_email\" "
+                + "Detail: Key (lower(email::text))=(duplicate@email.com) already exists.";
+        when(customerRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("could not execute batch"));
+        when(customerRepository.saveAndFlush(any(Customer.class)))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement", new SQLException(driverMessage)));
+
+        // ACT
+        CustomerBulkResponse response = customerBulkService.createAll(List.of(new Customer(null, "Maria", "duplicate@email.com")));
+
+        // ASSERT
+        String message = response.errors().get(0).message();
+        assertEquals("Conflicts with existing data (e.g. email already in use)", message);
+        assertFalse(message.contains("ux_customer_email"));
+        assertFalse(message.contains("duplicate@email.com"));
+    }
+
+    @Test
+    @DisplayName("BULK: should ignore client supplied ids")
+    void shouldIgnoreClientIds() {
+        // ACT
+        customerBulkService.createAll(List.of(new Customer(99L, "Lucas", "lucas@email.com")));
+
+        // ASSERT
+        verify(customerRepository).saveAll(argThat(rows -> rows.iterator().next().getId() == null));
+    }
+
+    @Test
+    @DisplayName("BULK: should reject requests above the row limit")
+    void shouldRejectOversizedRequest() {
+        // ARRANGE
+        List<Customer> customers = Collections.nCopies(11, new Customer(null, "Lucas", "lucas@email.com"));
+
+        // ACT
+        // ASSERT
+        assertThrows(InvalidCustomerBulkException.class, () -> customerBulkService.createAll(customers));
+        verify(customerRepository, never()).saveAll(anyList());
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.spring_base.fundamentals.service.customer;
+
+import com.spring_base.fundamentals.config.CustomerCacheProperties;
+import com.spring_base.fundamentals.dto.CustomerView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CustomerCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CustomerCache customerCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        customerCache = new CustomerCache(new CustomerCacheProperties(100, Duration.ofMinutes(5)), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should not cache a missing customer")
+    void shouldNotCacheMisses() {
+        // ARRANGE
+        AtomicInteger loads = new AtomicInteger();
+
+        // ACT
+        customerCache.get(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+        Optional<CustomerView> result = customerCache.get(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.of(new CustomerView(id, "Lucas", "lucas@email.com", 0L));
+        });
+
+        // ASSERT
+        assertEquals("Lucas", result.orElseThrow().name());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should hand out the cached view on a hit without copying it")
+    void shouldShareCachedView() {
+        // ARRANGE
+        CustomerView loaded = new CustomerView(1L, "Lucas", "lucas@email.com", 0L);
+        customerCache.get(1L, id -> Optional.of(loaded));
+
+        // ACT
+        CustomerView result = customerCache.get(1L, id -> Optional.empty()).orElseThrow();
+
+        // ASSERT
+        assertSame(loaded, result);
+    }
+
+    @Test
+    @DisplayName("Should load again after an eviction and publish hit and miss counts")
+    void shouldReloadAfterEviction() {
+        // ARRANGE
+        customerCache.get(1L, id -> Optional.of(new CustomerView(id, "Lucas", "lucas@email.com", 0L)));
+        customerCache.get(1L, id -> Optional.empty());
+
+        // ACT
+        customerCache.evict(1L);
+        Optional<CustomerView> result = customerCache.get(1L, id -> Optional.of(new CustomerView(id, "Lucas Test", "lucas@email.com", 1L)));
+
+        // ASSERT
+        assertEquals("Lucas Test", result.orElseThrow().name());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "customer").tag("result", "hit").functionCounter().count());
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", "customer").tag("result", "miss").functionCounter().count());
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.spring_base.fundamentals.service.customer;
+
+import com.spring_base.fundamentals.config.CustomerQueryProperties;
+import com.spring_base.fundamentals.dto.CustomerView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CustomerExportServiceTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TypedQuery<CustomerView> query;
+
+    private CustomerExportService customerExportService;
+
+    @BeforeEach
+    void setUp() {
+        customerExportService = new CustomerExportService(entityManager, JsonMapper.builder().build(), new CustomerQueryProperties(100, 250));
+        when(entityManager.createQuery(anyString(), eq(CustomerView.class))).thenReturn(query);
+        when(query.setHint(anyString(), any())).thenReturn(query);
+    }
+
+    @Test
+    @DisplayName("EXPORT: should write one JSON line per customer")
+    void shouldWriteOneLinePerCustomer() throws Exception {
+        // ARRANGE
+        when(query.getResultStream()).thenReturn(Stream.of(
+                new CustomerView(1L, "Lucas", "lucas@email.com", 0L),
+                new CustomerView(2L, "Maria", "maria@email.com", 3L)
+        ));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // ACT
+        long exported = customerExportService.exportTo(out);
+
+        // ASSERT
+        assertEquals(2, exported);
+        assertEquals(
+                "{\"id\":1,\"name\":\"Lucas\",\"email\":\"lucas@email.com\",\"version\":0}\n{\"id\":2,\"name\":\"Maria\",\"email\":\"maria@email.com\",\"version\":3}\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("EXPORT: should read a constructor projection through a cursor with the configured fetch size")
+    void shouldUseFetchSizeAndProjection() throws Exception {
+        // ARRANGE
+        when(query.getResultStream()).thenReturn(Stream.of(new CustomerView(1L, "Lucas", "lucas@email.com", 0L)));
+
+        // ACT
+        customerExportService.exportTo(new ByteArrayOutputStream());
+
+        // ASSERT
+        verify(query).setHint(HibernateHints.HINT_FETCH_SIZE, 250);
+        verify(entityManager).createQuery(startsWith("select new com.spring_base.fundamentals.dto.CustomerView("), eq(CustomerView.class));
+        verify(entityManager, never()).detach(any());
+    }
+
+}
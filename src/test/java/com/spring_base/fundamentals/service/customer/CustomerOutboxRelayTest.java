@@ -0,0 +1,115 @@
+package com.spring_base.fundamentals.service.customer;
+
+import com.spring_base.fundamentals.config.CustomerOutboxProperties;
+import com.spring_base.fundamentals.dto.CustomerEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CustomerOutboxRelayTest {
+
+    private static final CustomerEvent CREATED = new CustomerEvent(1L, 10L, "CREATED", "{\"id\":10}", Instant.EPOCH);
+    private static final CustomerEvent UPDATED = new CustomerEvent(2L, 10L, "UPDATED", "{\"id\":10}", Instant.EPOCH);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CustomerEventSink sink;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CustomerOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        CustomerOutboxProperties properties = new CustomerOutboxProperties(
+                CustomerOutboxProperties.Sink.LISTENER, 2, Duration.ofSeconds(1), Duration.ofDays(7), Duration.ofHours(1), null);
+        relay = new CustomerOutboxRelay(jdbcTemplate, new TransactionTemplate(transactionManager), sink, properties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should publish claimed events and only then mark them as published")
+    @SuppressWarnings("unchecked")
+    void shouldPublishAndMarkBatch() {
+        // ARRANGE
+        when(jdbcTemplate.query(startsWith("SELECT id, customer_id"), any(RowMapper.class), eq(2)))
+                .thenReturn(List.of(CREATED));
+
+        // ACT
+        int relayed = relay.relayBatch();
+
+        // ASSERT
+        assertEquals(1, relayed);
+        verify(sink).publish(List.of(CREATED));
+        ArgumentCaptor<Object> ids = ArgumentCaptor.forClass(Object.class);
+        verify(jdbcTemplate).update(startsWith("UPDATE customer_outbox SET published_at"), ids.capture());
+        assertArrayEquals(new Long[]{1L}, (Long[]) ids.getValue());
+        assertEquals(1.0, meterRegistry.get("customer.outbox.published").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should leave the batch unpublished when the sink fails")
+    @SuppressWarnings("unchecked")
+    void shouldKeepBatchWhenSinkFails() {
+        // ARRANGE
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(2))).thenReturn(List.of(CREATED));
+        doThrow(new IllegalStateException("listener down")).when(sink).publish(List.of(CREATED));
+
+        // ACT
+        int relayed = relay.relayBatch();
+
+        // ASSERT
+        assertEquals(0, relayed);
+        verify(jdbcTemplate, never()).update(startsWith("UPDATE customer_outbox"), any(Object.class));
+        verify(transactionManager).rollback(any());
+        assertEquals(1.0, meterRegistry.get("customer.outbox.failures").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should drain full batches in one poll and report the lag")
+    @SuppressWarnings("unchecked")
+    void shouldDrainFullBatchesAndReportLag() {
+        // ARRANGE
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(2)))
+                .thenReturn(List.of(CREATED, UPDATED))
+                .thenReturn(List.of());
+        when(jdbcTemplate.queryForObject(anyString(), eq(Double.class))).thenReturn(3.5);
+
+        // ACT
+        relay.relay();
+
+        // ASSERT
+        assertEquals(2.0, meterRegistry.get("customer.outbox.published").counter().count());
+        assertEquals(3.5, meterRegistry.get("customer.outbox.lag").gauge().value());
+    }
+
+}
@@ -1,21 +1,35 @@
 package com.spring_base.fundamentals.service.customer;
 
+import com.spring_base.fundamentals.config.CustomerCacheProperties;
+import com.spring_base.fundamentals.config.CustomerQueryProperties;
+import com.spring_base.fundamentals.config.IdempotencyProperties;
+import com.spring_base.fundamentals.dto.CustomerPage;
+import com.spring_base.fundamentals.dto.CustomerResponse;
+import com.spring_base.fundamentals.dto.CustomerView;
 import com.spring_base.fundamentals.exception.CustomerNotFoundException;
+import com.spring_base.fundamentals.exception.CustomerVersionConflictException;
+import com.spring_base.fundamentals.exception.IdempotencyConflictException;
+import com.spring_base.fundamentals.exception.InvalidCustomerSearchException;
 import com.spring_base.fundamentals.model.Customer;
 import com.spring_base.fundamentals.repository.CustomerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
+import java.time.Duration;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -25,6 +39,17 @@ public class CustomerServiceTest {
     @Mock
     private CustomerRepository customerRepository;
 
+    @Spy
+    private CustomerQueryProperties properties = new CustomerQueryProperties(100, 500);
+
+    @Spy
+    private IdempotencyStore idempotencyStore = new InMemoryIdempotencyStore(new IdempotencyProperties(
+            IdempotencyProperties.Store.MEMORY, Duration.ofHours(1), Duration.ofSeconds(30), 100, Duration.ofMinutes(5)));
+
+    @Spy
+    private CustomerCache customerCache = new CustomerCache(
+            new CustomerCacheProperties(100, Duration.ofMinutes(5)), new SimpleMeterRegistry());
+
     @InjectMocks
     private CustomerService customerService;
 
@@ -36,16 +61,17 @@ public class CustomerServiceTest {
         // ARRANGE
         Customer input = new Customer(null, "Lucas", "lucas@email.com");
         Customer saved = new Customer(1L, "Lucas", "lucas@email.com");
-        when(customerRepository.save(input)).thenReturn(saved);
+        when(customerRepository.saveAndFlush(input)).thenReturn(saved);
 
         // ACT
-        Customer result = customerService.createCustomer(input);
+        CustomerView result = customerService.createCustomer(input);
 
         // ASSERT
-        assertEquals(1L, result.getId());
-        assertEquals("Lucas", result.getName());
-        assertEquals("lucas@email.com", result.getEmail());
-        verify(customerRepository).save(input);
+        assertEquals(1L, result.id());
+        assertEquals("Lucas", result.name());
+        assertEquals("lucas@email.com", result.email());
+        verify(customerRepository).saveAndFlush(input);
+        verify(customerRepository).recordCreatedEvents(List.of(1L));
     }
 
     // PATCH tests
@@ -54,38 +80,35 @@ public class CustomerServiceTest {
     @DisplayName("PATCH: should update only name when email is null")
     void shouldUpdateOnlyNameWhenEmailIsNull() {
         // ARRANGE
-        Customer existing = new Customer(1L, "Lucas", "lucas@email.com");
         Customer partialData = new Customer(null, "Lucas Test", null);
-        when(customerRepository.findById(1L)).thenReturn(Optional.of(existing));
-        when(customerRepository.save(existing)).thenReturn(existing);
+        when(customerRepository.patchReturning(1L, "Lucas Test", null, null))
+                .thenReturn(Optional.of(new CustomerView(1L, "Lucas Test", "lucas@email.com", 1L)));
 
         // ACT
-        Map<String, Object> response = customerService.updateCustomer(1L, partialData);
+        CustomerResponse response = customerService.updateCustomer(1L, partialData);
 
         // ASSERT
-        Customer result = (Customer) response.get("customer");
-        assertEquals("Lucas Test", result.getName());
-        assertEquals("lucas@email.com", result.getEmail());
-        verify(customerRepository).save(existing);
+        CustomerView result = response.customer();
+        assertEquals("Lucas Test", result.name());
+        assertEquals("lucas@email.com", result.email());
+        verify(customerRepository, never()).findViewById(any());
     }
 
     @Test
     @DisplayName("PATCH: should update only email when name is null")
     void shouldUpdateOnlyEmailWhenNameIsNull() {
         // ARRANGE
-        Customer existing = new Customer(1L, "Lucas", "lucas@email.com");
         Customer partialData = new Customer(null, null, "lucasteste@email.com");
-        when(customerRepository.findById(1L)).thenReturn(Optional.of(existing));
-        when(customerRepository.save(existing)).thenReturn(existing);
+        when(customerRepository.patchReturning(1L, null, "lucasteste@email.com", null))
+                .thenReturn(Optional.of(new CustomerView(1L, "Lucas", "lucasteste@email.com", 1L)));
 
         // ACT
-        Map<String, Object> response = customerService.updateCustomer(1L, partialData);
+        CustomerResponse response = customerService.updateCustomer(1L, partialData);
 
         // ASSERT
-        Customer result = (Customer) response.get("customer");
-        assertEquals("Lucas", result.getName());
-        assertEquals("lucasteste@email.com", result.getEmail());
-        verify(customerRepository).save(existing);
+        CustomerView result = response.customer();
+        assertEquals("Lucas", result.name());
+        assertEquals("lucasteste@email.com", result.email());
     }
 
     @Test
@@ -93,7 +116,7 @@ public class CustomerServiceTest {
     void shouldThrowExceptionWhenPatchIdNotFound() {
         // ARRANGE
         Customer partialData = new Customer(null, null, null);
-        when(customerRepository.findById(99L)).thenReturn(Optional.empty());
+        when(customerRepository.patchReturning(99L, null, null, null)).thenReturn(Optional.empty());
 
         // ACT + ASSERT
         assertThrows(CustomerNotFoundException.class, () -> {
@@ -101,62 +124,74 @@ public class CustomerServiceTest {
         });
     }
 
+    @Test
+    @DisplayName("PATCH: should reject a stale version with a conflict")
+    void shouldRejectStaleVersionOnPatch() {
+        // ARRANGE
+        Customer partialData = new Customer(null, "Lucas Test", null, 3L);
+        when(customerRepository.patchReturning(1L, "Lucas Test", null, 3L)).thenReturn(Optional.empty());
+        when(customerRepository.existsById(1L)).thenReturn(true);
+
+        // ACT + ASSERT
+        assertThrows(CustomerVersionConflictException.class, () -> customerService.updateCustomer(1L, partialData));
+    }
+
     // PUT tests
 
     @Test
     @DisplayName("PUT: should replace customer completely")
     void shouldReplaceCustomerCompletely() {
         // ARRANGE
-        Customer existing = new Customer(1L, "Lucas", "lucas@email.com");
         Customer newData = new Customer(1L, "Lucas Teste", "lucasteste@email.com");
-        when(customerRepository.findById(1L)).thenReturn(Optional.of(existing));
-        when(customerRepository.save(newData)).thenReturn(newData);
+        when(customerRepository.replaceReturning(1L, "Lucas Teste", "lucasteste@email.com", null))
+                .thenReturn(Optional.of(new CustomerView(1L, "Lucas Teste", "lucasteste@email.com", 1L)));
 
         // ACT
-        Map<String, Object> response = customerService.replaceCustomer("key-1", 1L, newData);
+        CustomerResponse response = customerService.replaceCustomer("key-1", 1L, newData);
 
         // ASSERT
-        Customer result = (Customer) response.get("customer");
-        assertEquals(1L, result.getId());
-        assertEquals("Lucas Teste", result.getName());
-        assertEquals("lucasteste@email.com", result.getEmail());
-        verify(customerRepository).save(newData);
+        CustomerView result = response.customer();
+        assertEquals(1L, result.id());
+        assertEquals("Lucas Teste", result.name());
+        assertEquals("lucasteste@email.com", result.email());
+        assertEquals(1L, result.version());
+        verify(customerRepository, never()).findViewById(any());
+        verify(customerRepository, never()).save(any());
     }
 
     @Test
     @DisplayName("PUT: should return cached result when idempotency key is duplicated")
     void shouldReturnCachedResultWhenIdempotencyKeyDuplicated() {
         // ARRANGE
-        Customer existing = new Customer(1L, "Lucas", "lucas@email.com");
         Customer newData = new Customer(1L, "Lucas Teste", "lucasteste@email.com");
-        when(customerRepository.findById(1L)).thenReturn(Optional.of(existing));
-        when(customerRepository.save(newData)).thenReturn(newData);
+        when(customerRepository.replaceReturning(1L, "Lucas Teste", "lucasteste@email.com", null))
+                .thenReturn(Optional.of(new CustomerView(1L, "Lucas Teste", "lucasteste@email.com", 1L)));
 
         // ACT
-        Map<String, Object> response1 = customerService.replaceCustomer("key-1", 1L, newData);
-        Map<String, Object> response2 = customerService.replaceCustomer("key-1", 1L, newData);
+        CustomerResponse response1 = customerService.replaceCustomer("key-1", 1L, newData);
+        CustomerResponse response2 = customerService.replaceCustomer("key-1", 1L, newData);
 
         // ASSERT
-        Customer result1 = (Customer) response1.get("customer");
-        Customer result2 = (Customer) response2.get("customer");
+        CustomerView result1 = response1.customer();
+        CustomerView result2 = response2.customer();
         assertSame(result1, result2);
+        verify(customerRepository, times(1)).replaceReturning(1L, "Lucas Teste", "lucasteste@email.com", null);
     }
 
     @Test
     @DisplayName("PUT: should set path id on customer")
     void shouldSetPathIdOnCustomer() {
         // ARRANGE
-        Customer existing = new Customer(1L, "Lucas", "lucas@email.com");
         Customer newData = new Customer(999L, "Lucas Teste", "lucasteste@email.com");
-        when(customerRepository.findById(1L)).thenReturn(Optional.of(existing));
-        when(customerRepository.save(newData)).thenReturn(newData);
+        when(customerRepository.replaceReturning(1L, "Lucas Teste", "lucasteste@email.com", null))
+                .thenReturn(Optional.of(new CustomerView(1L, "Lucas Teste", "lucasteste@email.com", 1L)));
 
         // ACT
-        Map<String, Object> response = customerService.replaceCustomer("key-2", 1L, newData);
+        CustomerResponse response = customerService.replaceCustomer("key-2", 1L, newData);
 
         // ASSERT
-        Customer result = (Customer) response.get("customer");
-        assertEquals(1L, result.getId());
+        CustomerView result = response.customer();
+        assertEquals(1L, result.id());
     }
 
     @Test
@@ -164,7 +199,7 @@ public class CustomerServiceTest {
     void shouldThrowExceptionWhenPutIdNotFound() {
         // ARRANGE
         Customer newData = new Customer(99L, "Lucas Teste", "lucasteste@email.com");
-        when(customerRepository.findById(99L)).thenReturn(Optional.empty());
+        when(customerRepository.replaceReturning(99L, "Lucas Teste", "lucasteste@email.com", null)).thenReturn(Optional.empty());
 
         // ACT + ASSERT
         assertThrows(CustomerNotFoundException.class, () -> {
@@ -172,32 +207,71 @@ public class CustomerServiceTest {
         });
     }
 
+    @Test
+    @DisplayName("PUT: should reject a stale version with a conflict")
+    void shouldRejectStaleVersionOnPut() {
+        // ARRANGE
+        Customer newData = new Customer(1L, "Lucas Teste", "lucasteste@email.com", 2L);
+        when(customerRepository.replaceReturning(1L, "Lucas Teste", "lucasteste@email.com", 2L)).thenReturn(Optional.empty());
+        when(customerRepository.existsById(1L)).thenReturn(true);
+
+        // ACT + ASSERT
+        assertThrows(CustomerVersionConflictException.class, () -> customerService.replaceCustomer(null, 1L, newData));
+    }
+
+    @Test
+    @DisplayName("PUT: should release the idempotency key when the request fails")
+    void shouldReleaseIdempotencyKeyWhenPutFails() {
+        // ARRANGE
+        Customer newData = new Customer(99L, "Lucas Teste", "lucasteste@email.com");
+        when(customerRepository.replaceReturning(99L, "Lucas Teste", "lucasteste@email.com", null)).thenReturn(Optional.empty());
+
+        // ACT
+        assertThrows(CustomerNotFoundException.class, () -> customerService.replaceCustomer("key-3", 99L, newData));
+
+        // ASSERT
+        verify(idempotencyStore).release("key-3");
+        assertTrue(idempotencyStore.reserve("key-3", CustomerView.class).isEmpty());
+    }
+
+    @Test
+    @DisplayName("PUT: should reject a request whose idempotency key is still in flight")
+    void shouldRejectWhenIdempotencyKeyInFlight() {
+        // ARRANGE
+        Customer newData = new Customer(1L, "Lucas Teste", "lucasteste@email.com");
+        idempotencyStore.reserve("key-4", CustomerView.class);
+
+        // ACT + ASSERT
+        assertThrows(IdempotencyConflictException.class, () -> customerService.replaceCustomer("key-4", 1L, newData));
+        verify(customerRepository, never()).replaceReturning(any(), any(), any(), any());
+    }
+
     // GET tests
 
     @Test
     @DisplayName("GET: should return customer when id exists")
     void shouldReturnCustomerWhenIdExists() {
         // ARRANGE
-        Customer customer = new Customer(1L, "Lucas", "lucas@email.com");
-        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+        CustomerView customer = new CustomerView(1L, "Lucas", "lucas@email.com", 0L);
+        when(customerRepository.findViewById(1L)).thenReturn(Optional.of(customer));
 
         // ACT
-        Map<String, Object> response = customerService.getCustomer(1L);
+        CustomerResponse response = customerService.getCustomer(1L);
 
         // ASSERT
-        Customer result = (Customer) response.get("customer");
-        assertEquals(1L, result.getId());
-        assertEquals("Lucas", result.getName());
-        assertEquals("lucas@email.com", result.getEmail());
-        assertNotNull(response.get("elapsedMs"));
-        assertEquals("getCustomer", response.get("method"));
+        CustomerView result = response.customer();
+        assertEquals(1L, result.id());
+        assertEquals("Lucas", result.name());
+        assertEquals("lucas@email.com", result.email());
+        assertTrue(response.elapsedMs() >= 0);
+        assertEquals("getCustomer", response.method());
     }
 
     @Test
     @DisplayName("GET: should throw exception when id does not exist")
     void shouldThrowExceptionWhenGetIdNotFound() {
         // ARRANGE
-        when(customerRepository.findById(42L)).thenReturn(Optional.empty());
+        when(customerRepository.findViewById(42L)).thenReturn(Optional.empty());
 
         // ACT + ASSERT
         assertThrows(CustomerNotFoundException.class, () -> {
@@ -206,20 +280,143 @@ public class CustomerServiceTest {
     }
 
     @Test
-    @DisplayName("GET ALL: should return all customers")
-    void shouldReturnAllCustomers() {
+    @DisplayName("GET: should serve repeated reads from the cache")
+    void shouldServeRepeatedReadsFromCache() {
+        // ARRANGE
+        when(customerRepository.findViewById(1L)).thenReturn(Optional.of(new CustomerView(1L, "Lucas", "lucas@email.com", 0L)));
+
+        // ACT
+        customerService.getCustomer(1L);
+        CustomerResponse response = customerService.getCustomer(1L);
+
+        // ASSERT
+        assertEquals("Lucas", response.customer().name());
+        verify(customerRepository, times(1)).findViewById(1L);
+    }
+
+    @Test
+    @DisplayName("GET: should reload from the repository after a PATCH")
+    void shouldReloadAfterPatch() {
+        // ARRANGE
+        when(customerRepository.findViewById(1L))
+                .thenReturn(Optional.of(new CustomerView(1L, "Lucas", "lucas@email.com", 0L)))
+                .thenReturn(Optional.of(new CustomerView(1L, "Lucas Test", "lucas@email.com", 1L)));
+        when(customerRepository.patchReturning(1L, "Lucas Test", null, null))
+                .thenReturn(Optional.of(new CustomerView(1L, "Lucas Test", "lucas@email.com", 1L)));
+        customerService.getCustomer(1L);
+
+        // ACT
+        customerService.updateCustomer(1L, new Customer(null, "Lucas Test", null));
+        CustomerResponse response = customerService.getCustomer(1L);
+
+        // ASSERT
+        assertEquals("Lucas Test", response.customer().name());
+        verify(customerCache).evict(1L);
+        verify(customerRepository, times(2)).findViewById(1L);
+    }
+
+    @Test
+    @DisplayName("GET ALL: should return a page and the cursor for the next one")
+    void shouldReturnPageWithNextCursor() {
         // ARRANGE
-        List<Customer> customers = List.of(
-                new Customer(1L, "Lucas", "lucas@email.com"),
-                new Customer(2L, "Maria", "maria@email.com")
+        List<CustomerView> customers = List.of(
+                new CustomerView(11L, "Lucas", "lucas@email.com", 0L),
+                new CustomerView(12L, "Maria", "maria@email.com", 0L),
+                new CustomerView(13L, "Joao", "joao@email.com", 0L)
         );
-        when(customerRepository.findAll()).thenReturn(customers);
+        when(customerRepository.findByIdGreaterThanOrderByIdAsc(10L, Limit.of(3))).thenReturn(customers);
 
         // ACT
-        List<Customer> result = customerService.getAllCustomers();
+        CustomerPage result = customerService.listCustomers(10L, 2);
 
         // ASSERT
-        assertEquals(2, result.size());
+        assertEquals(2, result.items().size());
+        assertEquals(12L, result.nextAfter());
+    }
+
+    @Test
+    @DisplayName("GET ALL: should return no cursor on the last page")
+    void shouldReturnNoCursorOnLastPage() {
+        // ARRANGE
+        List<CustomerView> customers = List.of(new CustomerView(1L, "Lucas", "lucas@email.com", 0L));
+        when(customerRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(51))).thenReturn(customers);
+
+        // ACT
+        CustomerPage result = customerService.listCustomers(null, 50);
+
+        // ASSERT
+        assertEquals(1, result.items().size());
+        assertNull(result.nextAfter());
+    }
+
+    @Test
+    @DisplayName("GET ALL: should cap the page size at the configured maximum")
+    void shouldCapPageSize() {
+        // ARRANGE
+        when(customerRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(101))).thenReturn(List.of());
+
+        // ACT
+        CustomerPage result = customerService.listCustomers(0L, 1_000_000);
+
+        // ASSERT
+        assertTrue(result.items().isEmpty());
+        verify(customerRepository).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(101));
+    }
+
+    // SEARCH tests
+
+    @Test
+    @DisplayName("SEARCH: should look up by email and narrow by name prefix")
+    void shouldSearchByEmail() {
+        // ARRANGE
+        CustomerView customer = new CustomerView(1L, "Lucas", "lucas@email.com", 0L);
+        when(customerRepository.searchByEmail("lucas@email.com", "Luc%", 0L, 51)).thenReturn(List.of(customer));
+
+        // ACT
+        CustomerPage result = customerService.searchCustomers(" lucas@email.com ", "Luc", null, 50);
+
+        // ASSERT
+        assertEquals(List.of(customer), result.items());
+        assertNull(result.nextAfter());
+    }
+
+    @Test
+    @DisplayName("SEARCH: should page name prefix matches with the keyset cursor")
+    void shouldSearchByNamePrefix() {
+        // ARRANGE
+        List<CustomerView> customers = List.of(
+                new CustomerView(11L, "Lucas", "lucas@email.com", 0L),
+                new CustomerView(12L, "Luciana", "luciana@email.com", 0L),
+                new CustomerView(13L, "Lucio", "lucio@email.com", 0L)
+        );
+        when(customerRepository.searchByNamePrefix("Luc%", 10L, 3)).thenReturn(customers);
+
+        // ACT
+        CustomerPage result = customerService.searchCustomers(null, "Luc", 10L, 2);
+
+        // ASSERT
+        assertEquals(2, result.items().size());
+        assertEquals(12L, result.nextAfter());
+    }
+
+    @Test
+    @DisplayName("SEARCH: should match LIKE wildcards in the prefix literally")
+    void shouldEscapeLikeWildcards() {
+        // ARRANGE
+        when(customerRepository.searchByNamePrefix("50\\%\\_off%", 0L, 51)).thenReturn(List.of());
+
+        // ACT
+        CustomerPage result = customerService.searchCustomers(null, "50%_off", null, 50);
+
+        // ASSERT
+        assertTrue(result.items().isEmpty());
+    }
+
+    @Test
+    @DisplayName("SEARCH: should reject a search without email or name prefix")
+    void shouldRejectSearchWithoutCriteria() {
+        // ACT + ASSERT
+        assertThrows(InvalidCustomerSearchException.class, () -> customerService.searchCustomers(" ", null, null, 50));
     }
 
     // DELETE tests
@@ -228,22 +425,23 @@ public class CustomerServiceTest {
     @DisplayName("DELETE: should delete and return customer when id exists")
     void shouldDeleteAndReturnCustomerWhenIdExists() {
         // ARRANGE
-        Customer customer = new Customer(1L, "Lucas", "lucas@email.com");
-        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+        CustomerView customer = new CustomerView(1L, "Lucas", "lucas@email.com", 0L);
+        when(customerRepository.deleteReturning(1L)).thenReturn(Optional.of(customer));
 
         // ACT
-        Customer result = customerService.deleteCustomer(1L);
+        CustomerView result = customerService.deleteCustomer(1L);
 
         // ASSERT
-        assertEquals("Lucas", result.getName());
-        verify(customerRepository).deleteById(1L);
+        assertEquals("Lucas", result.name());
+        verify(customerRepository, never()).findViewById(any());
+        verify(customerCache).evict(1L);
     }
 
     @Test
     @DisplayName("DELETE: should throw exception when deleting non-existent id")
     void shouldThrowExceptionWhenDeletingNonExistentId() {
         // ARRANGE
-        when(customerRepository.findById(42L)).thenReturn(Optional.empty());
+        when(customerRepository.deleteReturning(42L)).thenReturn(Optional.empty());
 
         // ACT + ASSERT
         assertThrows(CustomerNotFoundException.class, () -> {
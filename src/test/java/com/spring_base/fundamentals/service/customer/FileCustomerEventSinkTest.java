@@ -0,0 +1,41 @@
+package com.spring_base.fundamentals.service.customer;
+
+import com.spring_base.fundamentals.config.CustomerOutboxProperties;
+import com.spring_base.fundamentals.dto.CustomerEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class FileCustomerEventSinkTest {
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    @DisplayName("Should append one JSON line per event with the payload inlined")
+    void shouldAppendNdjson() throws Exception {
+        // ARRANGE
+        Path file = dir.resolve("customer-events.ndjson");
+        FileCustomerEventSink sink = new FileCustomerEventSink(JsonMapper.builder().build(), new CustomerOutboxProperties(
+                CustomerOutboxProperties.Sink.FILE, 500, Duration.ofSeconds(1), Duration.ofDays(7), Duration.ofHours(1), file.toString()));
+
+        // ACT
+        sink.publish(List.of(new CustomerEvent(1L, 10L, "CREATED", "{\"id\":10,\"name\":\"Lucas\"}", Instant.EPOCH)));
+        sink.publish(List.of(new CustomerEvent(2L, 10L, "DELETED", "{\"id\":10,\"name\":\"Lucas\"}", Instant.EPOCH)));
+
+        // ASSERT
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        assertEquals("{\"id\":1,\"customerId\":10,\"type\":\"CREATED\",\"payload\":{\"id\":10,\"name\":\"Lucas\"},\"createdAt\":\"1970-01-01T00:00:00Z\"}", lines.get(0));
+    }
+
+}
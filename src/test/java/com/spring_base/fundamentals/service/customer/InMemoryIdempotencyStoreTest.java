@@ -0,0 +1,88 @@
+package com.spring_base.fundamentals.service.customer;
+
+import com.spring_base.fundamentals.config.IdempotencyProperties;
+import com.spring_base.fundamentals.exception.IdempotencyConflictException;
+import com.spring_base.fundamentals.model.Customer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InMemoryIdempotencyStoreTest {
+
+    private final InMemoryIdempotencyStore store = store(Duration.ofSeconds(30));
+
+    @Test
+    @DisplayName("Should let the first request own a new key")
+    void shouldReserveNewKey() {
+        // ACT
+        Optional<Customer> result = store.reserve("key-1", Customer.class);
+
+        // ASSERT
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject a second request while the key is in flight")
+    void shouldRejectInFlightKey() {
+        // ARRANGE
+        store.reserve("key-1", Customer.class);
+
+        // ACT
+        // ASSERT
+        assertThrows(IdempotencyConflictException.class, () -> store.reserve("key-1", Customer.class));
+    }
+
+    @Test
+    @DisplayName("Should replay the stored result once the key completed")
+    void shouldReplayCompletedKey() {
+        // ARRANGE
+        Customer customer = new Customer(1L, "Lucas", "lucas@email.com");
+        store.reserve("key-1", Customer.class);
+        store.complete("key-1", customer);
+
+        // ACT
+        Optional<Customer> result = store.reserve("key-1", Customer.class);
+
+        // ASSERT
+        assertSame(customer, result.orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Should free the key after release so a retry can run")
+    void shouldFreeReleasedKey() {
+        // ARRANGE
+        store.reserve("key-1", Customer.class);
+        store.release("key-1");
+
+        // ACT
+        Optional<Customer> result = store.reserve("key-1", Customer.class);
+
+        // ASSERT
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should take over a key whose owner held it past the lock timeout")
+    void shouldTakeOverExpiredLock() throws Exception {
+        // ARRANGE
+        InMemoryIdempotencyStore shortLock = store(Duration.ofMillis(1));
+        shortLock.reserve("key-1", Customer.class);
+        Thread.sleep(10);
+
+        // ACT
+        Optional<Customer> result = shortLock.reserve("key-1", Customer.class);
+
+        // ASSERT
+        assertTrue(result.isEmpty());
+    }
+
+    private static InMemoryIdempotencyStore store(Duration lockTimeout) {
+        return new InMemoryIdempotencyStore(new IdempotencyProperties(
+                IdempotencyProperties.Store.MEMORY, Duration.ofHours(1), lockTimeout, 100, Duration.ofMinutes(5)));
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.spring_base.fundamentals.service.customer;
+
+import com.spring_base.fundamentals.config.IdempotencyProperties;
+import com.spring_base.fundamentals.exception.IdempotencyConflictException;
+import com.spring_base.fundamentals.model.Customer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class JdbcIdempotencyStoreTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private JdbcIdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new JdbcIdempotencyStore(jdbcTemplate, JsonMapper.builder().build(), new IdempotencyProperties(
+                IdempotencyProperties.Store.JDBC, Duration.ofHours(1), Duration.ofSeconds(30), 100, Duration.ofMinutes(5)));
+    }
+
+    @Test
+    @DisplayName("Should own the key when the upsert claims the row")
+    void shouldReserveWhenRowClaimed() {
+        // ARRANGE
+        when(jdbcTemplate.update(anyString(), eq("key-1"), eq(30_000L), eq(3_600_000L))).thenReturn(1);
+
+        // ACT
+        Optional<Customer> result = store.reserve("key-1", Customer.class);
+
+        // ASSERT
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should replay the stored response of a completed key")
+    void shouldReplayCompletedKey() {
+        // ARRANGE
+        when(jdbcTemplate.update(anyString(), eq("key-1"), eq(30_000L), eq(3_600_000L))).thenReturn(0);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("key-1")))
+                .thenReturn(List.of("{\"id\":1,\"name\":\"Lucas\",\"email\":\"lucas@email.com\",\"version\":2}"));
+
+        // ACT
+        Customer result = store.reserve("key-1", Customer.class).orElseThrow();
+
+        // ASSERT
+        assertEquals(new Customer(1L, "Lucas", "lucas@email.com", 2L), result);
+    }
+
+    @Test
+    @DisplayName("Should reject the request when another one holds the key")
+    void shouldRejectInFlightKey() {
+        // ARRANGE
+        when(jdbcTemplate.update(anyString(), eq("key-1"), eq(30_000L), eq(3_600_000L))).thenReturn(0);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("key-1"))).thenReturn(List.of());
+
+        // ACT
+        // ASSERT
+        assertThrows(IdempotencyConflictException.class, () -> store.reserve("key-1", Customer.class));
+    }
+
+    @Test
+    @DisplayName("Should store the result as JSON on completion")
+    void shouldStoreResultAsJson() {
+        // ACT
+        store.complete("key-1", new Customer(1L, "Lucas", "lucas@email.com", 2L));
+
+        // ASSERT
+        verify(jdbcTemplate).update(anyString(), eq("{\"id\":1,\"name\":\"Lucas\",\"email\":\"lucas@email.com\",\"version\":2}"), eq("key-1"));
+    }
+
+}
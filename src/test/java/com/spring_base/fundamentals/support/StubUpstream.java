@@ -0,0 +1,113 @@
+package com.spring_base.fundamentals.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Local stand-in for ViaCep (/ws/{cep}/json) and Nationalize (/nationalize/?name=) that answers after a
+// configurable delay, so benchmarks and load tests measure our code instead of the public APIs
+public class StubUpstream implements AutoCloseable {
+
+    private static final byte[] VIACEP_BODY = """
+            {"cep":"83402-220","logradouro":"Rua Exemplo","complemento":"","unidade":"","bairro":"Centro",\
+            "localidade":"Colombo","uf":"PR","estado":"Paraná","regiao":"Sul","ibge":"4105805","gia":"",\
+            "ddd":"41","siafi":"7513"}""".getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] NATIONALIZE_BODY = """
+            {"count":12345,"name":"83402220","country":[{"country_id":"BR","probability":0.42},\
+            {"country_id":"PT","probability":0.11}]}""".getBytes(StandardCharsets.UTF_8);
+
+    static {
+        // the JDK server leaves Nagle on by default: headers and body go out as two writes, and the body
+        // then waits for the client's delayed ACK (~40ms) on every response
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Latency latency;
+
+    public StubUpstream(Latency latency) throws IOException {
+        this.latency = latency;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.createContext("/ws/", exchange -> respond(exchange, VIACEP_BODY));
+        server.createContext("/nationalize/", exchange -> respond(exchange, NATIONALIZE_BODY));
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String viaCepUrl() {
+        return baseUrl() + "/ws";
+    }
+
+    public String nationalizeUrl() {
+        return baseUrl() + "/nationalize";
+    }
+
+    private String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private void respond(HttpExchange exchange, byte[] body) throws IOException {
+        try (exchange) {
+            long delayNanos = latency.nextNanos();
+            if (delayNanos > 0) {
+                Thread.sleep(Duration.ofNanos(delayNanos));
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+
+    // "none", "fixed:<ms>" or "lognormal:<median ms>:<p99 ms>", the last one being the usual shape of real upstream latency
+    public record Latency(double medianMillis, double sigma) {
+
+        private static final double Z_99 = 2.3263;
+
+        public static Latency parse(String spec) {
+            String[] parts = spec.split(":");
+            return switch (parts[0]) {
+                case "none" -> new Latency(0, 0);
+                case "fixed" -> new Latency(Double.parseDouble(parts[1]), 0);
+                case "lognormal" -> {
+                    double median = Double.parseDouble(parts[1]);
+                    double p99 = Double.parseDouble(parts[2]);
+                    yield new Latency(median, Math.log(p99 / median) / Z_99);
+                }
+                default -> throw new IllegalArgumentException("Unknown latency spec: " + spec);
+            };
+        }
+
+        long nextNanos() {
+            if (medianMillis == 0) {
+                return 0;
+            }
+            double millis = sigma == 0
+                    ? medianMillis
+                    : medianMillis * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian());
+            return (long) (millis * 1_000_000);
+        }
+
+    }
+
+}